@@ -0,0 +1,249 @@
+/*
+ * AngleFormat - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * The formatting of the angles in the units of measurement of the Clinometer.
+ * It doesn't depend on Android: the symbols of the units are given to the constructor.
+ *
+ * The angles are written into char arrays owned by the caller, with no allocations,
+ * with the same output of String.format for the Locale of the AngleFormat.
+ * The char arrays can be passed directly to TextView.setText(char[],...) and Canvas.drawText(char[],...).
+ */
+public class AngleFormat {
+
+    // These values must match with arrays.xml <string-array name="UMAnglesValues">
+    public static final int UM_DEGREES          = 0;
+    public static final int UM_RADIANS          = 10;
+    public static final int UM_PERCENT          = 20;
+    public static final int UM_FRACTIONAL       = 30;
+//    public static final int UM_ENGINEERING_1H   = 40;
+
+    public static final int BUFFER_SIZE = 32;                   // The space needed to format an angle
+
+    private static final double MAX_FIXED_VALUE = 1E15;         // Bigger numbers are formatted by String.format
+    private static final long[] POWERS_OF_TEN = {1, 10, 100};
+    private static final double MAX_FRACTION_TERM = 1000;       // The biggest numerator and denominator of the fractions
+    private static final char[] OVERFLOW_POSITIVE = {'>', '>'};
+    private static final char[] OVERFLOW_NEGATIVE = {'<', '<'};
+
+    private final Locale locale;
+    private final char zeroDigit;                               // The cached digit '0' of the Locale
+    private final char decimalSeparator;                        // The cached decimal separator of the Locale
+    private final char[] degreesSymbol;
+    private final char[] percentSymbol;
+
+
+    /**
+     * Creates a new AngleFormat for the default Locale.
+     *
+     * @param degreesSymbol The symbol appended to the angles in degrees
+     * @param percentSymbol The symbol appended to the slopes in percent
+     */
+    public AngleFormat(String degreesSymbol, String percentSymbol) {
+        this(degreesSymbol, percentSymbol, Locale.getDefault());
+    }
+
+
+    /**
+     * Creates a new AngleFormat.
+     *
+     * @param degreesSymbol The symbol appended to the angles in degrees
+     * @param percentSymbol The symbol appended to the slopes in percent
+     * @param locale The Locale that gives the digits and the decimal separator
+     */
+    public AngleFormat(String degreesSymbol, String percentSymbol, Locale locale) {
+        DecimalFormatSymbols decimalFormatSymbols = DecimalFormatSymbols.getInstance(locale);
+        this.locale = locale;
+        this.zeroDigit = decimalFormatSymbols.getZeroDigit();
+        this.decimalSeparator = decimalFormatSymbols.getDecimalSeparator();
+        this.degreesSymbol = degreesSymbol.toCharArray();
+        this.percentSymbol = percentSymbol.toCharArray();
+    }
+
+
+    /**
+     * It returns a String containing the angle formatted in the given unit of measurement.
+     *
+     * @param number The angle to format (in degrees)
+     * @param unitOfMeasurement The unit of measurement (one of the UM_* constants)
+     * @return The String containing the formatted data as number and unit of measurement
+     */
+    public String format(float number, int unitOfMeasurement) {
+        char[] buffer = new char[BUFFER_SIZE];
+        return new String(buffer, 0, format(number, unitOfMeasurement, buffer, 0));
+    }
+
+
+    /**
+     * It writes the angle formatted in the given unit of measurement into the buffer.
+     * The buffer must have at least BUFFER_SIZE chars available from the offset.
+     *
+     * @param number The angle to format (in degrees)
+     * @param unitOfMeasurement The unit of measurement (one of the UM_* constants)
+     * @param buffer The destination of the formatted data
+     * @param offset The position of the buffer where the formatted data starts
+     * @return The position of the buffer that follows the formatted data
+     */
+    public int format(float number, int unitOfMeasurement, char[] buffer, int offset) {
+        switch (unitOfMeasurement) {
+            case UM_DEGREES:
+                return appendChars(buffer, appendFixed(buffer, offset, number, 1), degreesSymbol);
+
+            case UM_RADIANS:
+                return appendFixed(buffer, offset, Math.toRadians(number), 2);
+
+            case UM_PERCENT:
+                float percent;
+                if (number == 90) percent = 1000;
+                else if (number == -90) percent = -1000;
+                else percent = (float) Math.tan(Math.toRadians(number)) * 100.0f;
+
+                if (percent >= 1000) return appendChars(buffer, offset, OVERFLOW_POSITIVE);
+                if (percent <= -1000) return appendChars(buffer, offset, OVERFLOW_NEGATIVE);
+                if (Math.abs(percent) < 100)
+                    return appendChars(buffer, appendFixed(buffer, offset, percent, 1), percentSymbol);
+                return appendChars(buffer, appendFixed(buffer, offset, percent, 0), percentSymbol);
+
+            case UM_FRACTIONAL:
+                return appendFraction(buffer, offset, (float) Math.tan(Math.toRadians(number)));
+
+//            case UM_ENGINEERING_1H:
+//                float eH;
+//                if (number == 90) eH = 1000;
+//                else if (number == -90) eH = -1000;
+//                else eH = (float) Math.tan(Math.toRadians(number));
+//
+//                if (eH >= 1000) {
+//                    s = ">>";
+//                } else if (eH <= -1000) {
+//                    s = "<<";
+//                } else {
+//                    if (Math.abs(eH) < 10) s = (eH > 0 ? "" : "-") + String.format(Locale.getDefault(), "%.3f", Math.abs(eH));
+//                    else if (Math.abs(eH) < 100) s = (eH > 0 ? "" : "-") + String.format(Locale.getDefault(), "%.1f", Math.abs(eH));
+//                    else s = (eH > 0 ? "" : "-") + String.format(Locale.getDefault(), "%.0f", Math.abs(eH));
+//                    s += ":1";
+//                }
+//                break;
+        }
+        return offset;
+    }
+
+
+    /**
+     * It writes the double into its representation as fraction.
+     * The standard tolerance for approximation is 1.0E-2.
+     * The fraction is the first convergent of the continued fraction of x that falls within the tolerance.
+     * The denominators of the convergents always grow, so the expansion stops as soon as a denominator
+     * exceeds MAX_FRACTION_TERM: the result is "0" whatever the following terms are.
+     * The loop runs at most 17 times, and no more than 7 times for the angles between -89.9° and 89.9°.
+     *
+     * @param buffer The destination of the fraction
+     * @param offset The position of the buffer where the fraction starts
+     * @param x The double number to convert in fraction
+     * @return The position of the buffer that follows the fraction
+     */
+    // Based on the good Matthew556's answer on
+    // https://stackoverflow.com/questions/31585931/how-to-convert-decimal-to-fractions
+    private int appendFraction(char[] buffer, int offset, double x) {
+        double xx = Math.abs(x);
+        boolean isNegative = x != Math.abs(x);
+        double tolerance = 1.0E-2;
+        double h1 = 1;
+        double h2 = 0;
+        double k1 = 0;
+        double k2 = 1;
+        double b = xx;
+        do {
+            double a = Math.floor(b);
+            double aux = h1;
+            h1 = a * h1 + h2;
+            h2 = aux;
+            aux = k1;
+            k1 = a * k1 + k2;
+            k2 = aux;
+            b = 1 / (b - a);
+        } while ((k1 <= MAX_FRACTION_TERM) && (Math.abs(xx - h1 / k1) > xx * tolerance));
+
+        if (k1 > MAX_FRACTION_TERM) {
+            buffer[offset] = '0';
+            return offset + 1;
+        }
+        if (h1 > MAX_FRACTION_TERM) return appendChars(buffer, offset, isNegative ? OVERFLOW_NEGATIVE : OVERFLOW_POSITIVE);
+        if (isNegative) buffer[offset++] = '-';
+        offset = appendInteger(buffer, offset, (long) h1);
+        buffer[offset++] = ':';
+        return appendInteger(buffer, offset, (long) k1);
+    }
+
+
+    /**
+     * Writes a number with the given count of decimals, rounded HALF_UP as String.format("%.nf") does.
+     */
+    private int appendFixed(char[] buffer, int offset, double value, int decimals) {
+        if (!(Math.abs(value) < MAX_FIXED_VALUE)) {
+            // NaN, Infinity and huge numbers, never used by the Clinometer
+            String s = String.format(locale, "%." + decimals + "f", value);
+            int length = Math.min(s.length(), buffer.length - offset);
+            s.getChars(0, length, buffer, offset);
+            return offset + length;
+        }
+        boolean isNegative = (value < 0) || ((value == 0) && (1 / value < 0));     // -0.0 is written as String.format does
+        long digits = (long) Math.floor(Math.abs(value) * POWERS_OF_TEN[decimals] + 0.5);
+
+        if (isNegative) buffer[offset++] = '-';
+        offset = appendInteger(buffer, offset, digits / POWERS_OF_TEN[decimals]);
+        if (decimals > 0) {
+            long fraction = digits % POWERS_OF_TEN[decimals];
+            buffer[offset++] = decimalSeparator;
+            for (int i = offset + decimals - 1; i >= offset; i--) {
+                buffer[i] = (char) (zeroDigit + fraction % 10);
+                fraction /= 10;
+            }
+            offset += decimals;
+        }
+        return offset;
+    }
+
+
+    /**
+     * Writes a non-negative integer, with the digits of the Locale.
+     */
+    private int appendInteger(char[] buffer, int offset, long value) {
+        int length = 1;
+        for (long v = value / 10; v > 0; v /= 10) length++;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) (zeroDigit + value % 10);
+            value /= 10;
+        }
+        return offset + length;
+    }
+
+
+    private static int appendChars(char[] buffer, int offset, char[] chars) {
+        System.arraycopy(chars, 0, buffer, offset, chars.length);
+        return offset + chars.length;
+    }
+}
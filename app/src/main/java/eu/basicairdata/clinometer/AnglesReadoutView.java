@@ -0,0 +1,223 @@
+/*
+ * AnglesReadoutView - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * The readout of the three angles, drawn from char buffers into three fixed slots.
+ * The slots are sized once for the widest text of the unit of measurement,
+ * so the updates of the angles only redraw the View, and never require a new layout.
+ * It supports the android:textAppearance attribute, and the text attributes that
+ * override it: textSize, typeface, textStyle, textColor, fontFamily and letterSpacing.
+ * The formatted angles are also set as the content description, for the accessibility services.
+ */
+public class AnglesReadoutView extends View {
+
+    private static final int SLOTS_NUMBER = 3;
+    private static final float DEFAULT_TEXT_SIZE = 18;      // The default text size (in sp)
+    private static final float SLOT_SIZING_STEP = 0.1f;     // The angles step used to search the widest text (in degrees)
+    private static final String SLOT_GAP = "  ";            // The space between the slots
+    private static final String DESCRIPTION_SEPARATOR = ", ";   // The separator of the angles in the content description
+
+    // The text attributes read from the text appearance and from the layout
+    // (in ascending order of id, as required by obtainStyledAttributes)
+    private static final int[] TEXT_ATTRS = {
+            android.R.attr.textSize,
+            android.R.attr.typeface,
+            android.R.attr.textStyle,
+            android.R.attr.textColor,
+            android.R.attr.fontFamily,
+            android.R.attr.letterSpacing};
+    private static final int TEXT_SIZE = 0;
+    private static final int TYPEFACE = 1;
+    private static final int TEXT_STYLE = 2;
+    private static final int TEXT_COLOR = 3;
+    private static final int FONT_FAMILY = 4;
+    private static final int LETTER_SPACING = 5;
+
+    private final ClinometerApplication clinometerApplication = ClinometerApplication.getInstance();
+    private final DataFormatter dataFormatter = new DataFormatter();
+
+    private final Paint paint = new Paint();
+    private final char[][] slots = new char[SLOTS_NUMBER][AngleFormat.BUFFER_SIZE];
+    private final int[] slotsLength = new int[SLOTS_NUMBER];
+    private final char[] newSlot = new char[AngleFormat.BUFFER_SIZE];
+
+    private int slotsUM = -1;               // The unit of measurement used to size the slots (-1 = not sized)
+    private float slotWidth;                // The width of each slot
+    private float slotGap;                  // The width of the space between the slots
+
+
+    public AnglesReadoutView(Context context) {
+        super(context);
+        createPaint(context, null);
+    }
+
+
+    public AnglesReadoutView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        createPaint(context, attrs);
+    }
+
+
+    public AnglesReadoutView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+        createPaint(context, attrs);
+    }
+
+
+    private void createPaint(Context context, AttributeSet attrs) {
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
+                DEFAULT_TEXT_SIZE, context.getResources().getDisplayMetrics()));
+        paint.setColor(Color.WHITE);
+        paint.setAntiAlias(true);
+        paint.setTextAlign(Paint.Align.RIGHT);
+
+        // The text appearance first, then the attributes of the layout, as a TextView does
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, new int[] {android.R.attr.textAppearance});
+        int textAppearance = typedArray.getResourceId(0, 0);
+        typedArray.recycle();
+        if (textAppearance != 0) {
+            typedArray = context.obtainStyledAttributes(textAppearance, TEXT_ATTRS);
+            applyTextAttributes(typedArray);
+            typedArray.recycle();
+        }
+        typedArray = context.obtainStyledAttributes(attrs, TEXT_ATTRS);
+        applyTextAttributes(typedArray);
+        typedArray.recycle();
+    }
+
+
+    /**
+     * Applies to the Paint the text attributes that are defined in the given TypedArray.
+     */
+    private void applyTextAttributes(TypedArray typedArray) {
+        if (typedArray.hasValue(TEXT_SIZE)) paint.setTextSize(typedArray.getDimension(TEXT_SIZE, paint.getTextSize()));
+        if (typedArray.hasValue(TEXT_COLOR)) paint.setColor(typedArray.getColor(TEXT_COLOR, paint.getColor()));
+        if ((Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) && typedArray.hasValue(LETTER_SPACING))
+            paint.setLetterSpacing(typedArray.getFloat(LETTER_SPACING, 0));
+
+        if (typedArray.hasValue(FONT_FAMILY) || typedArray.hasValue(TYPEFACE) || typedArray.hasValue(TEXT_STYLE)) {
+            Typeface typeface = paint.getTypeface();
+            int style = typedArray.getInt(TEXT_STYLE, (typeface != null) ? typeface.getStyle() : Typeface.NORMAL);
+            String fontFamily = typedArray.getString(FONT_FAMILY);
+            if (fontFamily != null) paint.setTypeface(Typeface.create(fontFamily, style));
+            else {
+                if (typedArray.hasValue(TYPEFACE)) typeface = getTypeface(typedArray.getInt(TYPEFACE, 0));
+                paint.setTypeface(Typeface.create(typeface, style));
+            }
+        }
+    }
+
+
+    /**
+     * Returns the Typeface of a value of the enum android:typeface.
+     */
+    private static Typeface getTypeface(int typeface) {
+        switch (typeface) {
+            case 1:  return Typeface.SANS_SERIF;
+            case 2:  return Typeface.SERIF;
+            case 3:  return Typeface.MONOSPACE;
+            default: return Typeface.DEFAULT;
+        }
+    }
+
+
+    /**
+     * Sizes the slots for the widest text of the current unit of measurement,
+     * formatting all the angles between -90° and +90°.
+     */
+    private void sizeSlots() {
+        slotsUM = clinometerApplication.getPrefUM();
+        slotWidth = 0;
+        for (float angle = -90; angle <= 90; angle += SLOT_SIZING_STEP) {
+            slotWidth = Math.max(slotWidth, paint.measureText(newSlot, 0, dataFormatter.format(angle, newSlot, 0)));
+        }
+        slotGap = paint.measureText(SLOT_GAP);
+    }
+
+
+    /**
+     * Shows the given angles. The View is redrawn only if the formatted texts are changed.
+     *
+     * @param angles The three angles (in degrees)
+     */
+    public void setAngles(float[] angles) {
+        // The unit of measurement is changed: the slots must be sized again
+        if (clinometerApplication.getPrefUM() != slotsUM) requestLayout();
+
+        boolean isChanged = false;
+        for (int slot = 0; slot < SLOTS_NUMBER; slot++) {
+            int length = dataFormatter.format(angles[slot], newSlot, 0);
+            boolean isSlotChanged = length != slotsLength[slot];
+            for (int i = 0; (i < length) && !isSlotChanged; i++) isSlotChanged = newSlot[i] != slots[slot][i];
+            if (isSlotChanged) {
+                System.arraycopy(newSlot, 0, slots[slot], 0, length);
+                slotsLength[slot] = length;
+                isChanged = true;
+            }
+        }
+        if (isChanged) {
+            setContentDescription(new StringBuilder()
+                    .append(slots[0], 0, slotsLength[0]).append(DESCRIPTION_SEPARATOR)
+                    .append(slots[1], 0, slotsLength[1]).append(DESCRIPTION_SEPARATOR)
+                    .append(slots[2], 0, slotsLength[2]).toString());
+            invalidate();
+        }
+    }
+
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (clinometerApplication.getPrefUM() != slotsUM) sizeSlots();
+        Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+        int width = getPaddingLeft() + (int) Math.ceil(SLOTS_NUMBER * slotWidth + (SLOTS_NUMBER - 1) * slotGap) + getPaddingRight();
+        int height = getPaddingTop() + (int) Math.ceil(fontMetrics.descent - fontMetrics.ascent) + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+
+    @Override
+    public int getBaseline() {
+        return getPaddingTop() + (int) Math.ceil(-paint.ascent());
+    }
+
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        // The texts are aligned to the right of their slots
+        for (int slot = 0; slot < SLOTS_NUMBER; slot++) {
+            canvas.drawText(slots[slot], 0, slotsLength[slot],
+                    getPaddingLeft() + (slot + 1) * slotWidth + slot * slotGap, getBaseline(), paint);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * BackgroundRenderer - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+import android.os.Build;
+
+/**
+ * Draws the background of the Clinometer: the radial gradient and the spokes every 10°.
+ * It is shared by the BackgroundView and by the ClinometerView, that can draw
+ * the background itself in order to render the whole screen in a single pass.
+ */
+public class BackgroundRenderer {
+
+    // The background changes only with the geometry: it is recorded once into a Picture,
+    // and at each frame it is just drawn rotated by refbgAxis.
+    // Hardware accelerated Canvases support drawPicture only from Android 6.0: on older devices it is drawn directly
+    private static final boolean IS_BACKGROUND_CACHED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+
+    // The unit vectors of the spokes, every 10° except the multiples of 30° (drawn by the ClinometerView)
+    private static final int SPOKES_NUMBER = 24;
+    private static final float[] SPOKES_COS = new float[SPOKES_NUMBER];
+    private static final float[] SPOKES_SIN = new float[SPOKES_NUMBER];
+    static {
+        int spoke = 0;
+        for (int angle = 0; angle < 360; angle += 10) {
+            if (angle % 30 != 0) {
+                SPOKES_COS[spoke] = (float) Math.cos(Math.toRadians(angle));
+                SPOKES_SIN[spoke] = (float) Math.sin(Math.toRadians(angle));
+                spoke++;
+            }
+        }
+    }
+
+    private final Resources resources;
+
+    private final Paint paint_bg;           // For Background Gradient
+    private final Paint paint_DKGray;       // For Background Lines != 30°
+    private Picture background;             // The cached background (null = to be recorded)
+
+    private int x;                          // The Width of Screen
+    private int y;                          // The Height of Screen
+    private int xc;                         // x screen center
+    private int yc;                         // y screen center
+    private double diag2c;                  // Screen Diagonal/2 = distance between 0:0 and xc:yc
+
+    private final float[] spokes = new float[SPOKES_NUMBER * 4];    // The Array of Lines of the spokes
+
+
+    public BackgroundRenderer(Resources resources) {
+        this.resources = resources;
+
+        paint_DKGray = new Paint();
+        paint_DKGray.setColor(resources.getColor(R.color.line_dark));
+        paint_DKGray.setStyle(Paint.Style.STROKE);
+        paint_DKGray.setStrokeWidth(1.0f);
+        paint_DKGray.setDither(true);
+        paint_DKGray.setAntiAlias(true);
+
+        paint_bg = new Paint();
+        paint_bg.setStyle(Paint.Style.FILL);
+    }
+
+
+    /**
+     * Sets the geometry of the screen, computed by the View that uses the renderer.
+     *
+     * @param x The Width of Screen
+     * @param y The Height of Screen
+     * @param xc The x screen center
+     * @param yc The y screen center
+     * @param diag2c The distance between 0:0 and xc:yc
+     * @param r1 The radius of the first circle
+     */
+    public void setGeometry(int x, int y, int xc, int yc, double diag2c, float r1) {
+        this.x = x;
+        this.y = y;
+        this.xc = xc;
+        this.yc = yc;
+        this.diag2c = diag2c;
+
+        paint_bg.setShader(new RadialGradient(xc, yc, (int) (diag2c / 2),
+                resources.getColor(R.color.bgpaint_dark),
+                resources.getColor(R.color.bgpaint_light),
+                Shader.TileMode.MIRROR));
+
+        for (int i = 0; i < SPOKES_NUMBER; i++) {
+            spokes[i * 4] = xc - (int) (diag2c * SPOKES_COS[i]);
+            spokes[i * 4 + 1] = yc - (int) (diag2c * SPOKES_SIN[i]);
+            spokes[i * 4 + 2] = xc - (int) (r1 * SPOKES_COS[i]);
+            spokes[i * 4 + 3] = yc - (int) (r1 * SPOKES_SIN[i]);
+        }
+
+        background = null;
+    }
+
+
+    private void drawBackground(Canvas canvas) {
+        canvas.drawCircle(xc, yc, (int) diag2c, paint_bg);
+        canvas.drawLines(spokes, paint_DKGray);
+    }
+
+
+    /**
+     * Draws the background.
+     *
+     * @param canvas The Canvas
+     * @param refbgAxis The rotation of the background (in degrees)
+     */
+    public void draw(Canvas canvas, float refbgAxis) {
+        canvas.save();
+        canvas.rotate(refbgAxis, xc, yc);
+        if (IS_BACKGROUND_CACHED) {
+            if (background == null) {
+                background = new Picture();
+                drawBackground(background.beginRecording(x, y));
+                background.endRecording();
+            }
+            canvas.drawPicture(background);
+        } else drawBackground(canvas);
+        canvas.restore();
+    }
+}
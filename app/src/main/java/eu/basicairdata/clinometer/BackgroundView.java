@@ -23,9 +23,6 @@ package eu.basicairdata.clinometer;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.RadialGradient;
-import android.graphics.Shader;
 import android.util.AttributeSet;
 import android.view.View;
 
@@ -33,28 +30,19 @@ public class BackgroundView extends View {
 
     private static final float N_CIRCLES_FULLY_VISIBLE = 4.5f;
 
-    private Paint paint_bg;                 // For Background Gradient
-    private Paint paint_DKGray;             // For Background Lines != 30°
-    private boolean isShaderCreated = false;                    // True if the Background Shader has been created
+    private BackgroundRenderer backgroundRenderer;     // Draws the gradient and the spokes
 
     private final ClinometerActivity clinometerActivity = ClinometerActivity.getInstance();
-    private final ClinometerApplication clinometerApplication = ClinometerApplication.getInstance();
 
     private float refbgAxis = 0;             // The reference axis for ref Angles
 
     private int x;                      // The Width of Screen
     private int y;                      // The Height of Screen
-    private int min_xy;                 // The minimum between Width and Height
-    private int max_xy;                 // The maximum between Width and Height
     private int xc;                     // x screen center
     private int yc;                     // y screen center
     private double diag2c;              // Screen Diagonal/2 = distance between 0:0 and xc:yc
-    private int ncircles;               // The number of visible circles
-    private float r1_value;             // The scale (to how many degrees corresponds each circle)
     private float r1;                   // The radius of the first circle = 1 deg.
 
-    private int angle;
-
 
     public BackgroundView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -78,61 +66,32 @@ public class BackgroundView extends View {
 
 
     private void createPaints() {
-        // create the Paint and set its color
-
-        paint_DKGray = new Paint();
-        paint_DKGray.setColor(getResources().getColor(R.color.line_dark));
-        paint_DKGray.setStyle(Paint.Style.STROKE);
-        paint_DKGray.setStrokeWidth(1.0f);
-        paint_DKGray.setDither(true);
-        paint_DKGray.setAntiAlias(true);
-
-        paint_bg = new Paint();
-        paint_bg.setStyle(Paint.Style.FILL);
-        isShaderCreated = false;
+        backgroundRenderer = new BackgroundRenderer(getResources());
     }
 
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        //super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
 
-        refbgAxis = clinometerActivity.getbgPIDValue();
-
-        x = getWidth();
-        y = getHeight();
-        min_xy = Math.min(x, y);
-        max_xy = Math.max(x, y);
+        x = w;
+        y = h;
+        int min_xy = Math.min(x, y);                    // The minimum between Width and Height
         xc = x / 2;                                     // x screen center
         yc = y / 2;                                     // y screen center
 
         diag2c = Math.sqrt(xc * xc + yc * yc);          // Screen Diagonal/2 = distance between 0:0 and xc:yc
-        r1_value = 2;                                   // The scale (to how many degrees corresponds each circle)
-        ncircles = (int) Math.ceil(N_CIRCLES_FULLY_VISIBLE * 2 * diag2c / min_xy);
-        // The number of circles to be drawn
         r1 = (min_xy / 2.0f) / N_CIRCLES_FULLY_VISIBLE; // The radius of the first circle.
 
-        if (!isShaderCreated) {
-            paint_bg.setShader(new RadialGradient(xc, yc, (int) (Math.sqrt(xc * xc + yc * yc) / 2),
-                    getResources().getColor(R.color.bgpaint_dark),
-                    getResources().getColor(R.color.bgpaint_light),
-                    Shader.TileMode.MIRROR));
-            isShaderCreated = true;
-        }
-        canvas.drawCircle(xc, yc, (int) Math.sqrt(xc*xc + yc*yc), paint_bg);
-
-        canvas.save();
-        canvas.rotate(refbgAxis, xc, yc);
-
-        for (angle = 0; angle < 360; angle += 10) {
-            if (angle % 30 != 0) canvas.drawLine(
-                xc - (int) (diag2c * Math.cos(Math.toRadians(angle))),
-                yc - (int) (diag2c * Math.sin(Math.toRadians(angle))),
-                xc - (int) (r1 * Math.cos(Math.toRadians(angle))),
-                yc - (int) (r1 * Math.sin(Math.toRadians(angle))),
-                paint_DKGray);
-        }
-
-        canvas.restore();
+        backgroundRenderer.setGeometry(x, y, xc, yc, diag2c, r1);
+    }
+
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        //super.onDraw(canvas);
+
+        refbgAxis = clinometerActivity.getbgPIDValue();
+        backgroundRenderer.draw(canvas, refbgAxis);
     }
 }
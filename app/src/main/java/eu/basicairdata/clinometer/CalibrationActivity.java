@@ -345,11 +345,15 @@ public class CalibrationActivity extends AppCompatActivity implements SensorEven
                 Log.d("Clinometer", String.format("Gain    =  %+1.4f  %+1.4f  %+1.4f", calibrationGain[0], calibrationGain[1], calibrationGain[2]));
 
                 // Apply the Gain and Offset Correction to measurement
+                // (a CalibrationModel without rotation, because the angles are not known yet)
 
+                CalibrationModel gainAndOffsetModel = new CalibrationModel(new float[] {0, 0, 0}, calibrationGain, calibrationOffset);
+                float[] correctedMean = new float[3];
                 for (int i = 0; i < 7; i++) {
-                    mean[0][i] = (mean[0][i] - calibrationOffset[0]) / calibrationGain[0];
-                    mean[1][i] = (mean[1][i] - calibrationOffset[1]) / calibrationGain[1];
-                    mean[2][i] = (mean[2][i] - calibrationOffset[2]) / calibrationGain[2];
+                    gainAndOffsetModel.apply(mean[0][i], mean[1][i], mean[2][i], correctedMean);
+                    mean[0][i] = correctedMean[0];
+                    mean[1][i] = correctedMean[1];
+                    mean[2][i] = correctedMean[2];
                 }
 
                 Log.d("Clinometer","-- MEAN CORRECTED ----------------------------------------------------------");
@@ -0,0 +1,119 @@
+/*
+ * CalibrationModel - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * The calibration of the accelerometers, as an immutable affine transform.
+ * The calibrated vector is R * ((v - offset) / gain), where R is the rotation defined by
+ * the calibration angles; the offsets, the reciprocal gains and the rotation are folded
+ * into a single 3x4 matrix, applied in one pass:
+ * calibrated = A * v + b, with A = R * diag(1 / gain) and b = -A * offset.
+ * The rotation alone is available for the sensors that measure in the same frame
+ * of the accelerometers but are not affected by their offsets and gains
+ * (the gyroscope and the rotation vector).
+ */
+public final class CalibrationModel {
+
+    // The model of a device not calibrated
+    public static final CalibrationModel IDENTITY = new CalibrationModel(new float[] {0, 0, 0}, new float[] {1, 1, 1}, new float[] {0, 0, 0});
+
+    private final float a00, a01, a02, b0;      // The affine transform
+    private final float a10, a11, a12, b1;
+    private final float a20, a21, a22, b2;
+
+    private final float r00, r01, r02;          // The rotation
+    private final float r10, r11, r12;
+    private final float r20, r21, r22;
+
+
+    /**
+     * Creates the model of the given calibration.
+     *
+     * @param angles The calibration angles: alpha, beta, gamma (in degrees)
+     * @param gains The gains of the accelerometers
+     * @param offsets The offsets of the accelerometers
+     */
+    public CalibrationModel(float[] angles, float[] gains, float[] offsets) {
+        double sin0 = Math.sin(Math.toRadians(angles[0]));
+        double cos0 = Math.cos(Math.toRadians(angles[0]));
+        double sin1 = Math.sin(Math.toRadians(angles[1]));
+        double cos1 = Math.cos(Math.toRadians(angles[1]));
+        double sin2 = Math.sin(Math.toRadians(angles[2]));
+        double cos2 = Math.cos(Math.toRadians(angles[2]));
+
+        r00 = (float) (cos2 * cos0 + sin2 * sin1 * sin0);
+        r01 = (float) (cos1 * sin0);
+        r02 = (float) (-sin2 * cos0 + cos2 * sin1 * sin0);
+
+        r10 = (float) (-cos2 * sin0 + sin2 * sin1 * cos0);
+        r11 = (float) (cos1 * cos0);
+        r12 = (float) (sin2 * sin0 + cos2 * sin1 * cos0);
+
+        r20 = (float) (sin2 * cos1);
+        r21 = (float) (-sin1);
+        r22 = (float) (cos2 * cos1);
+
+        a00 = r00 / gains[0];
+        a01 = r01 / gains[1];
+        a02 = r02 / gains[2];
+        a10 = r10 / gains[0];
+        a11 = r11 / gains[1];
+        a12 = r12 / gains[2];
+        a20 = r20 / gains[0];
+        a21 = r21 / gains[1];
+        a22 = r22 / gains[2];
+
+        b0 = -(a00 * offsets[0] + a01 * offsets[1] + a02 * offsets[2]);
+        b1 = -(a10 * offsets[0] + a11 * offsets[1] + a12 * offsets[2]);
+        b2 = -(a20 * offsets[0] + a21 * offsets[1] + a22 * offsets[2]);
+    }
+
+
+    /**
+     * Applies the whole calibration (offsets, gains and rotation) to a reading of the accelerometers.
+     *
+     * @param x The reading of the axis X
+     * @param y The reading of the axis Y
+     * @param z The reading of the axis Z
+     * @param result The array that receives the calibrated vector
+     */
+    public void apply(float x, float y, float z, float[] result) {
+        result[0] = a00 * x + a01 * y + a02 * z + b0;
+        result[1] = a10 * x + a11 * y + a12 * z + b1;
+        result[2] = a20 * x + a21 * y + a22 * z + b2;
+    }
+
+
+    /**
+     * Applies only the rotation of the calibration to a vector.
+     *
+     * @param x The component X of the vector
+     * @param y The component Y of the vector
+     * @param z The component Z of the vector
+     * @param result The array that receives the rotated vector
+     */
+    public void applyRotation(float x, float y, float z, float[] result) {
+        result[0] = r00 * x + r01 * y + r02 * z;
+        result[1] = r10 * x + r11 * y + r12 * z;
+        result[2] = r20 * x + r21 * y + r22 * z;
+    }
+}
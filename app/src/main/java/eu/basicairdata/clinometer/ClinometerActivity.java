@@ -22,6 +22,8 @@
 package eu.basicairdata.clinometer;
 
 import android.Manifest;
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.annotation.SuppressLint;
 import android.content.Context;
@@ -51,12 +53,16 @@ import android.media.AudioManager;
 import android.media.ToneGenerator;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
 import android.os.Vibrator;
 import android.util.Log;
 import android.view.Display;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
@@ -71,16 +77,11 @@ import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_AUTOLOCK
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_AUTOLOCK_HORIZON_CHECK;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_AUTOLOCK_PRECISION;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_ANGLE_0;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_ANGLE_1;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_ANGLE_2;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_GAIN_0;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_GAIN_1;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_GAIN_2;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_OFFSET_0;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_OFFSET_1;
-import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRATION_OFFSET_2;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CAMERA_EXPOSURE_COMPENSATION;
+import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_INPUT_SOURCE;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_KEEP_SCREEN_ON;
+import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_SENSOR_THREAD;
+import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_SINGLE_PASS_RENDERING;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_UNIT_OF_MEASUREMENT;
 
 
@@ -97,9 +98,8 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     private Vibrator vibrator;
 
     // RefAxis Animator
-    private final PIDAnimator bgpid = new PIDAnimator(0.0f, 0.3f, 0.0f, 0.03f, 16);
-    private final PIDAnimator pid = new PIDAnimator(0.0f, 0.3f, 0.0f, 0.03f, 16);
-    private float old_PIDValue = 0.0f;
+    private final SpringAnimator bgpid = new SpringAnimator(0.0f);
+    private final SpringAnimator pid = new SpringAnimator(0.0f);
     private float old_bgPIDValue = 0.0f;
 
 
@@ -107,30 +107,23 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 
     private static final float AUTOLOCK_MIN_TOLERANCE = 0.05f;          // The minimum tolerance of the AutoLock
     private static final float AUTOLOCK_MAX_TOLERANCE = 0.5f;           // The maximum tolerance of the AutoLock
-    private static final float AUTOLOCK_HORIZON_CHECK_THRESHOLD = 5.0f; // The zone of horizon check (+- 5 degrees)
-    private static final float ROTATION_THRESHOLD = 5;                  // The threshold of the boundaries for DisplayRotation (in degrees)
-    private static final int   SIZE_OF_MEANVARIANCE = 200;              // 2 seconds
-
-    private static final float ALPHA = 0.03f;                          // Weight of the new sensor reading
-    private float alpha0 = ALPHA;
-    private float alpha1 = ALPHA;
-    private float alpha2 = ALPHA;
 
     private ClinometerApplication clinometerApplication;
     private SharedPreferences preferences;
 
-    private boolean prefAutoLock = false;
-    private boolean prefAutoLockHorizonCheck = true;
-    private float prefAutoLockTolerance;
+    // The Auto-Locking preferences are read also by the sensor thread
+    private volatile boolean prefAutoLock = false;
+    private volatile boolean prefAutoLockHorizonCheck = true;
+    private volatile float prefAutoLockTolerance;
     private int prefExposureCompensation = 0;
+    private boolean prefSinglePassRendering = false;     // True if the ClinometerView draws also the background
+    private boolean prefSensorThread = true;             // True to process the sensor samples on a dedicated thread
 
     private boolean isSettingsClicked = false;           // True when the Three-dots button has been clicked
 
-    private boolean isFlat = true;                       // True if the device is oriented flat (for example on a table)
-    private boolean isLocked = false;                    // True if the angles are locked by user
+    private volatile boolean isLocked = false;           // True if the angles are locked by user
     private boolean isDeltaAngle = false;                // True if the delta angles is selected
-    private boolean isLockRequested = false;
-    private float displayRotation = 0;                   // The rotation angle from the natural position of the device
+    private volatile boolean isLockRequested = false;
 
     private boolean isInCameraMode = false;              // True if Camera Mode is active
     private boolean isCameraLivePreviewActive = false;  // True if the Live Preview with Camera is active
@@ -142,13 +135,8 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 //        return singleton;
 //    }
 
-    private String formattedAngle0;
-    private String formattedAngle1;
-    private String formattedAngle2;
-    private final DataFormatter dataFormatter = new DataFormatter();
-
     private ClinometerView mClinometerView;
-    private TextView mTextViewAngles;
+    private AnglesReadoutView mAnglesReadoutView;
     private TextView mTextViewToast;
     private TextView mTextViewKeepScreenVertical;
     private FrameLayout mFrameLayoutClinometer;
@@ -167,36 +155,25 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 
     private SensorManager mSensorManager;
     private Sensor mRotationSensor;
+    private InputSource inputSource;                    // The sensors that feed the InclinationEngine, used only by the sensor thread
 
-    private final float[] gravity              = {0, 0, 0};    // The (filtered) current accelerometers values
-    private final float[] gravity_gain         = {0, 0, 0};
-    private final float[] gravity_offset       = {0, 0, 0};
-    private final float[] gravity_calibrated   = {0, 0, 0};    // The (filtered) current calibrated accelerometers values
-
-    private final float[] angle_calibration    = {0, 0, 0};    // The angles for calibration: alpha, beta, gamma (in degrees)
-    private final float[] angle                = {0, 0, 0};    // The (filtered) current angles (in degrees)
-
-    private final float[][] calibrationMatrix = new float[3][3];
-
-    private float gravityXY = 0;
-    private float gravityXYZ = 0;
-    private float angleXY = 0;                          // The angle on the horizontal plane (in degrees)
-    private float angleXYZ = 0;                         // The angle between XY vector and the vertical (in degrees)
-    private float angleTextLabels = 0;                  // The rotation angle for the text labels
-
-    private final static int ACCELEROMETER_UPDATE_INTERVAL_MICROS = 10000;
+    private HandlerThread sensorThread;                 // The thread that processes the sensor samples (null if it is not used)
+    private volatile Handler sensorHandler;             // The Handler of sensorThread (null if it is not used)
 
-    private final MeanVariance mvAngle0 = new MeanVariance(SIZE_OF_MEANVARIANCE);
-    private final MeanVariance mvAngle1 = new MeanVariance(SIZE_OF_MEANVARIANCE);
-    private final MeanVariance mvAngle2 = new MeanVariance(SIZE_OF_MEANVARIANCE);
-    private final MeanVariance mvGravity0 = new MeanVariance(16);
-    private final MeanVariance mvGravity1 = new MeanVariance(16);
-    private final MeanVariance mvGravity2 = new MeanVariance(16);
+    private final InclinationEngine inclinationEngine = new InclinationEngine();   // The signal processing, used only by the sensor thread
+    private final MeasurementPublisher measurementPublisher = new MeasurementPublisher();
+    private MeasurementSnapshot measurementSnapshot = measurementPublisher.acquire();   // The current measurement shown by the UI
+    private float overlaysRotation = 0;                 // The rotation currently applied to the overlays
+    private FrameScheduler frameScheduler;              // Renders the UI at most once per vsync
 
     private float refAngleXY = 0;                       // The reference angle on the plane
     private float refAngleXYZ = 0;                      // The reference angle between the screen plane and the horizontal plane
 
-    private ValueAnimator animationR = new ValueAnimator();
+    private final ValueAnimator animationR = ValueAnimator.ofFloat(0, 1);  // The fade animation of the overlays rotations
+    private float overlaysTargetRotation = 0;           // The rotation to apply to the overlays at the middle of the fade
+    private int overlaysTargetHeight;                   // The height to apply to the overlays at the middle of the fade
+    private int overlaysTargetWidth;                    // The width to apply to the overlays at the middle of the fade
+    private boolean isOverlaysRotationPending = false;  // true if the overlays must be rotated at the middle of the fade
 
     private static Camera mCamera = null;
     private CameraPreview mPreview;
@@ -219,10 +196,12 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 
     public void setPIDTargetValue(float newValue) {
         pid.setTargetValue(newValue);
+        frameScheduler.requestFrame();
     }
 
     public void setbgPIDTargetValue(float newValue) {
         bgpid.setTargetValue(newValue);
+        frameScheduler.requestFrame();
     }
 
     public float getPIDValue() {
@@ -234,11 +213,11 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     }
 
     public float getDisplayRotation() {
-        return displayRotation;
+        return measurementSnapshot.displayRotation;
     }
 
     public boolean isFlat() {
-        return isFlat;
+        return measurementSnapshot.isFlat;
     }
 
     public boolean isDeltaAngle() {
@@ -249,20 +228,24 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
         return isInCameraMode;
     }
 
+    /**
+     * Returns the current angles.
+     * The array belongs to the current MeasurementSnapshot and must not be modified.
+     */
     public float[] getAngles() {
-        return angle;
+        return measurementSnapshot.angle;
     }
 
     public float getAngleXY() {
-        return angleXY;
+        return measurementSnapshot.angleXY;
     }
 
     public float getAngleXYZ() {
-        return angleXYZ;
+        return measurementSnapshot.angleXYZ;
     }
 
     public float getAngleTextLabels() {
-        return angleTextLabels;
+        return measurementSnapshot.angleTextLabels;
     }
 
     public float getRefAngleXYZ() {
@@ -300,7 +283,7 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
         setContentView(R.layout.activity_clinometer);
 
         mClinometerView = findViewById(R.id.id_clinometerview);
-        mTextViewAngles = findViewById(R.id.id_textview_angles);
+        mAnglesReadoutView = findViewById(R.id.id_anglesreadoutview);
         mTextViewToast = findViewById(R.id.id_textview_toast);
         mTextViewKeepScreenVertical = findViewById(R.id.id_textview_keep_screen_vertical);
         mImageViewLock = findViewById(R.id.id_imageview_lock);
@@ -321,6 +304,8 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 //        mLinearLayoutDeltaAngles.setBackground(null);
         mImageViewDeltaAngles.setAlpha(0.4f);
 
+        setupOverlaysRotationAnimation();
+
         mImageViewCamera.setAlpha(0.4f);
         mLinearLayoutToolbar.setBackground(null);
 
@@ -330,18 +315,20 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 //            MVGravity2.LoadSample(9.81f);
 //        }
 
-        mvGravity0.reset(0.0f);
-        mvGravity1.reset(0.0f);
-        mvGravity2.reset(9.80f);
-
         // ---------- Check sensors
 
         Log.d("Clinometer", "- ROTATION_VECTOR Sensors = " + mSensorManager.getSensorList(Sensor.TYPE_ROTATION_VECTOR).size());
         Log.d("Clinometer", "- ACCELEROMETER Sensors = " + mSensorManager.getSensorList(Sensor.TYPE_ACCELEROMETER).size());
+        Log.d("Clinometer", "- GYROSCOPE Sensors = " + mSensorManager.getSensorList(Sensor.TYPE_GYROSCOPE).size());
+        Log.d("Clinometer", "- GAME_ROTATION_VECTOR Sensors = " + mSensorManager.getSensorList(Sensor.TYPE_GAME_ROTATION_VECTOR).size());
 
         mRotationSensor = mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
         if (mRotationSensor == null) Log.d("Clinometer", "NO ACCELEROMETER FOUND!");
 
+        frameScheduler = new FrameScheduler(onFrameListener);
+        frameScheduler.addAnimation(pid);
+        frameScheduler.addAnimation(bgpid);
+
         // ---------- Button Listeners
 
         mLinearLayoutAnglesAndDelta.setOnTouchListener(new View.OnTouchListener() {
@@ -371,6 +358,7 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
             @Override
             public boolean onTouch(View v, MotionEvent event) {
                 bgpid.setValue(refAngleXY);
+                frameScheduler.requestFrame();
 
                 if (isDeltaAngle) {
                     isDeltaAngle = false;
@@ -384,11 +372,11 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
                 }
                 else {
                     isDeltaAngle = true;
-                    refAngleXYZ = angleXYZ;
+                    refAngleXYZ = measurementSnapshot.angleXYZ;
                     mImageViewDeltaAngles.setAlpha(1.0f);
                     mImageViewDeltaAngles.setImageResource(R.drawable.ic_push_pin_24);
 
-                    float newAngle = (angleXY + 90) % 360;
+                    float newAngle = (measurementSnapshot.angleXY + 90) % 360;
 
                     Log.w("ClinometerActivity", "[#] ClinometerActivity - Current angle = " + refAngleXY + " - New angle = " + newAngle);
 
@@ -475,6 +463,7 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     protected void onPause() {
         super.onPause();
         mSensorManager.unregisterListener(this);
+        frameScheduler.stop();
         if (isInCameraMode) releaseCamera(true);
         stopCamera();
     }
@@ -487,10 +476,7 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 
         loadPreferences();
 
-        formattedAngle0 = dataFormatter.format(angle[0]);
-        formattedAngle1 = dataFormatter.format(angle[1]);
-        formattedAngle2 = dataFormatter.format(angle[2]);
-        mTextViewAngles.setText(formattedAngle0 + "  " + formattedAngle1 + "  " + formattedAngle2);
+        updateAnglesReadout();
 
         mFrameLayoutClinometer.setSystemUiVisibility(
                 //View.SYSTEM_UI_FLAG_IMMERSIVE |
@@ -512,7 +498,8 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
         isLockRequested = false;
         updateLockIcon();
 
-        mSensorManager.registerListener(this, mRotationSensor, ACCELEROMETER_UPDATE_INTERVAL_MICROS);
+        startInputSource();
+        frameScheduler.start();
 
         if (isInCameraMode && !isLocked){
             cameraPreviewBitmap = null;
@@ -533,6 +520,7 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     protected void onDestroy() {
         super.onDestroy();
         if (mHandler != null) { mHandler.removeCallbacks(mRunnable); }
+        if (sensorThread != null) sensorThread.quitSafely();
     }
 
 
@@ -548,172 +536,86 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     }
 
 
+    /**
+     * Processes the samples of the accelerometer.
+     * It runs on the sensor thread, or on the UI thread if the sensor thread is disabled in the preferences:
+     * it only updates the InclinationEngine and publishes the results,
+     * the Views are updated by the UI thread at the next frame, in onFrameListener.
+     */
     public void onSensorChanged(SensorEvent event) {
-
-        if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
-
-            // LOCKING
-
-            if (isLockRequested) {
-                if (!prefAutoLock) {
-                    isLockRequested = false;
-                    isLocked = true;
-                    mClinometerView.invalidate();
-                    updateLockIcon();
-                    beep();
-                    if (isInCameraMode) releaseCamera(true);
-                } else if ((mvAngle0.getTolerance() < prefAutoLockTolerance)
-                        && (mvAngle1.getTolerance() < prefAutoLockTolerance)
-                        && (mvAngle2.getTolerance() < prefAutoLockTolerance)
-                        && mvAngle0.getLoaded()
-                        && mvAngle1.getLoaded()
-                        && mvAngle2.getLoaded()
-                        && ((!prefAutoLockHorizonCheck)
-                                || (Math.abs(angle[2]) >= AUTOLOCK_HORIZON_CHECK_THRESHOLD)
-                                || (prefAutoLockHorizonCheck && (Math.abs(angle[2]) < AUTOLOCK_HORIZON_CHECK_THRESHOLD) && (Math.abs(mvAngle2.getMeanValue()) < prefAutoLockTolerance)))) {
-
-                    angle[0] = (float) (180 / Math.PI * Math.asin((mvGravity0.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
-                    angle[1] = (float) (180 / Math.PI * Math.asin((mvGravity1.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
-                    angle[2] = (float) (180 / Math.PI * Math.asin((mvGravity2.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
-
-                    angleXY = 0;
-                    if (gravityXY > 0) {
-                        if (mvGravity0.getMeanValue() >= 0) {
-                            if (mvGravity1.getMeanValue() < 0)
-                                angleXY = (float) Math.toDegrees(-Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                            else
-                                angleXY = (float) Math.toDegrees(2 * Math.PI - Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                        } else
-                            angleXY = (float) Math.toDegrees(Math.PI + Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                    }
-
-                    angleXYZ = 0;
-                    if (gravityXY > 0) {
-                        angleXYZ = (float) Math.toDegrees(Math.acos(mvGravity2.getMeanValue() / gravityXYZ));
-                    }
-
-                    Log.d("SpiritLevel", "------------------------------------------------------------------");
-                    Log.d("SpiritLevel", String.format("Auto Locking Tolerance = %1.4f", prefAutoLockTolerance));
-                    Log.d("SpiritLevel", (String.format("Measurement locked - Angle0: Mean=%+1.4f Uncertainty=%+1.4f", mvAngle0.getMeanValue(), mvAngle0.getTolerance())));
-                    Log.d("SpiritLevel", (String.format("Measurement locked - Angle1: Mean=%+1.4f Uncertainty=%+1.4f", mvAngle1.getMeanValue(), mvAngle1.getTolerance())));
-                    Log.d("SpiritLevel", (String.format("Measurement locked - Angle2: Mean=%+1.4f Uncertainty=%+1.4f", mvAngle2.getMeanValue(), mvAngle2.getTolerance())));
-                    Log.d("SpiritLevel", "------------------------------------------------------------------");
-
-                    isLockRequested = false;
-                    isLocked = true;
-                    mClinometerView.invalidate();
-                    updateLockIcon();
-                    beep();
-                    if (isInCameraMode) releaseCamera(true);
-
-                    mvAngle0.reset();
-                    mvAngle1.reset();
-                    mvAngle2.reset();
-                }
+        // Drops the samples still queued on the thread used before a change of the preference
+        Handler handler = sensorHandler;
+        if (Looper.myLooper() != ((handler != null) ? handler.getLooper() : Looper.getMainLooper())) return;
+
+        // LOCKING
+        // The Auto-Locking is checked once per sample of the angles
+
+        if (isLockRequested && inputSource.isMainReading(event)) {
+            if (!prefAutoLock) {
+                isLockRequested = false;
+                isLocked = true;
+                runOnUiThread(lockRunnable);
+            } else if (inclinationEngine.isAutoLockAllowed(prefAutoLockTolerance, prefAutoLockHorizonCheck)) {
+                MeanVariance3.Statistics angleAutoLockStatistics = inclinationEngine.getAngleAutoLockStatistics();
+
+                Log.d("SpiritLevel", "------------------------------------------------------------------");
+                Log.d("SpiritLevel", String.format("Auto Locking Tolerance = %1.4f", prefAutoLockTolerance));
+                Log.d("SpiritLevel", (String.format("Measurement locked - Angle0: Mean=%+1.4f Spread95=%+1.4f (10s Mean=%+1.4f)", angleAutoLockStatistics.meanValue[0], angleAutoLockStatistics.spread95[0], inclinationEngine.getAngleMeanValue(0))));
+                Log.d("SpiritLevel", (String.format("Measurement locked - Angle1: Mean=%+1.4f Spread95=%+1.4f (10s Mean=%+1.4f)", angleAutoLockStatistics.meanValue[1], angleAutoLockStatistics.spread95[1], inclinationEngine.getAngleMeanValue(1))));
+                Log.d("SpiritLevel", (String.format("Measurement locked - Angle2: Mean=%+1.4f Spread95=%+1.4f (10s Mean=%+1.4f)", angleAutoLockStatistics.meanValue[2], angleAutoLockStatistics.spread95[2], inclinationEngine.getAngleMeanValue(2))));
+                Log.d("SpiritLevel", "------------------------------------------------------------------");
+
+                isLockRequested = false;
+                isLocked = true;
+                runOnUiThread(lockRunnable);
+
+                inclinationEngine.resetAutoLock();
             }
+        }
 
-            // SIGNAL PROCESSING
-
-            if (!isLocked) {
-                alpha0 = ALPHA * (float)(1 + Math.abs(mvGravity0.getMeanValue() - event.values[0])*0.1);
-                alpha1 = ALPHA * (float)(1 + Math.abs(mvGravity1.getMeanValue() - event.values[1])*0.1);
-                alpha2 = ALPHA * (float)(1 + Math.abs(mvGravity2.getMeanValue() - event.values[2])*0.1);
-
-                // Weighted gravity reads
-
-                if ((gravity[0] == 0) && (gravity[1] == 0) && (gravity[2] == 0)) {
-                    gravity[0] = (event.values[0] - gravity_offset[0]) / gravity_gain[0];   // X
-                    gravity[1] = (event.values[1] - gravity_offset[1]) / gravity_gain[1];   // Y
-                    gravity[2] = (event.values[2] - gravity_offset[2]) / gravity_gain[2];   // Z
-                } else {
-                    gravity[0] = (1 - alpha0) * gravity[0] + (alpha0) * (event.values[0] - gravity_offset[0]) / gravity_gain[0];
-                    gravity[1] = (1 - alpha1) * gravity[1] + (alpha1) * (event.values[1] - gravity_offset[1]) / gravity_gain[1];
-                    gravity[2] = (1 - alpha2) * gravity[2] + (alpha2) * (event.values[2] - gravity_offset[2]) / gravity_gain[2];
-                }
-
-                // Apply Calibration values
-
-                gravity_calibrated[0] = gravity[0] * calibrationMatrix[0][0] + gravity[1] * calibrationMatrix[0][1] + gravity[2] * calibrationMatrix[0][2];
-                gravity_calibrated[1] = gravity[0] * calibrationMatrix[1][0] + gravity[1] * calibrationMatrix[1][1] + gravity[2] * calibrationMatrix[1][2];
-                gravity_calibrated[2] = gravity[0] * calibrationMatrix[2][0] + gravity[1] * calibrationMatrix[2][1] + gravity[2] * calibrationMatrix[2][2];
-
-                mvGravity0.loadSample(gravity_calibrated[0]);
-                mvGravity1.loadSample(gravity_calibrated[1]);
-                mvGravity2.loadSample(gravity_calibrated[2]);
-
-                gravityXY = (float) Math.sqrt(mvGravity0.getMeanValue() * mvGravity0.getMeanValue() + mvGravity1.getMeanValue() * mvGravity1.getMeanValue());   // Vector over the screen plane
-                gravityXYZ = (float) Math.sqrt(gravityXY * gravityXY + mvGravity2.getMeanValue() * mvGravity2.getMeanValue());                                  // Spatial Vector
-
-                // Calculate Angles
-
-                angleXY = 0;
-                if (gravityXY > 0) {
-                    if (mvGravity0.getMeanValue() >= 0) {
-                        if (mvGravity1.getMeanValue() < 0)
-                            angleXY = (float) Math.toDegrees(-Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                        else
-                            angleXY = (float) Math.toDegrees(2 * Math.PI - Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                    } else
-                        angleXY = (float) Math.toDegrees(Math.PI + Math.asin(mvGravity1.getMeanValue() / gravityXY));
-                }
-
-                angleXYZ = 0;
-                if (gravityXY > 0) {
-                    angleXYZ = (float) Math.toDegrees(Math.acos(mvGravity2.getMeanValue() / gravityXYZ));
-                }
-
-                angle[0] = (float) (180 / Math.PI * Math.asin((mvGravity0.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
-                angle[1] = (float) (180 / Math.PI * Math.asin((mvGravity1.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
-                angle[2] = (float) (180 / Math.PI * Math.asin((mvGravity2.getMeanValue() / Math.max(gravityXYZ, 0.00001f))));
+        // SIGNAL PROCESSING
 
-                // Load angles into Auto-Locking MeanVariances
+        if (!isLocked && inputSource.process(event, inclinationEngine)) {
+            measurementPublisher.getBackSnapshot().set(inclinationEngine);
+            measurementPublisher.publish();
+            frameScheduler.requestFrame();
+        }
+    }
 
-                mvAngle0.loadSample(angle[0]);
-                mvAngle1.loadSample(angle[1]);
-                mvAngle2.loadSample(angle[2]);
 
-                // Determine Rotation, ViewMode and Text Angles
+    /**
+     * Updates the UI after the measure has been locked by the sensor thread.
+     */
+    private final Runnable lockRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mClinometerView.invalidate();
+            updateLockIcon();
+            beep();
+            if (isInCameraMode) releaseCamera(true);
+        }
+    };
 
-                if (Math.abs(angle[2]) < 70) {
-                    if ((angleXY > 270 - 45 + ROTATION_THRESHOLD) && (angleXY < 270 + 45 - ROTATION_THRESHOLD) && (displayRotation != 0)) {
-                        displayRotation = 0;
-                        Log.w("SpiritLevel", " ROTATION = " + displayRotation);
-                        rotateOverlays(displayRotation, this.getWindowManager().getDefaultDisplay().getHeight(), this.getWindowManager().getDefaultDisplay().getWidth());
-                    }
-                    if ((angleXY > 90 - 45 + ROTATION_THRESHOLD) && (angleXY < 90 + 45 - ROTATION_THRESHOLD) && (displayRotation != 180)) {
-                        displayRotation = 180;
-                        Log.w("SpiritLevel", " ROTATION = " + displayRotation);
-                        rotateOverlays(displayRotation, this.getWindowManager().getDefaultDisplay().getHeight(), this.getWindowManager().getDefaultDisplay().getWidth());
-                    }
-                    if ((angleXY > 180 - 45 + ROTATION_THRESHOLD) && (angleXY < 180 + 45 - ROTATION_THRESHOLD) && (displayRotation != 270)) {
-                        displayRotation = 270;
-                        Log.w("SpiritLevel", " ROTATION = " + displayRotation);
-                        rotateOverlays(displayRotation, this.getWindowManager().getDefaultDisplay().getWidth(), this.getWindowManager().getDefaultDisplay().getHeight());
-                    }
-                    if (((angleXY > 270 + 45 + ROTATION_THRESHOLD) || (angleXY < 45 - ROTATION_THRESHOLD)) && (displayRotation != 90)) {
-                        displayRotation = 90;
-                        Log.w("SpiritLevel", " ROTATION = " + displayRotation);
-                        rotateOverlays(displayRotation, this.getWindowManager().getDefaultDisplay().getWidth(), this.getWindowManager().getDefaultDisplay().getHeight());
-                    }
-                }
 
-                if (Math.abs(angle[2]) < 70) {
-                    if (isFlat) isFlat = false;
-                    angleTextLabels = (90 + angleXY) % 360;
-                }
-                if ((Math.abs(angle[2]) >= 70) && (Math.abs(angle[2]) < 75)) {
-                    if ((displayRotation == 0) && (angleXY < 270)) {
-                        //Log.d("SpiritLevel", "ANG");
-                        angleTextLabels = displayRotation * (Math.abs(angle[2]) - 70) / 5
-                                + (((90 + angleXY) % 360) - 360) * (75 - Math.abs(angle[2])) / 5;
-                    } else {
-                        angleTextLabels = displayRotation * (Math.abs(angle[2]) - 70) / 5
-                                + ((90 + angleXY) % 360) * (75 - Math.abs(angle[2])) / 5;
-                    }
-                }
-                if (Math.abs(angle[2]) >= 75) {
-                    if (!isFlat) isFlat = true;
-                    angleTextLabels = displayRotation;
+    /**
+     * Updates the Views with the latest MeasurementSnapshot and with the animations.
+     * It runs on the UI thread, at most once per vsync, and only when a frame has been requested.
+     */
+    private final FrameScheduler.OnFrameListener onFrameListener = new FrameScheduler.OnFrameListener() {
+        @Override
+        public void onFrame(long frameTimeNanos) {
+            if (measurementPublisher.hasNewSnapshot()) {
+                measurementSnapshot = measurementPublisher.acquire();
+                float[] angle = measurementSnapshot.angle;
+
+                // Apply the new Display Rotation
+                if (measurementSnapshot.displayRotation != overlaysRotation) {
+                    overlaysRotation = measurementSnapshot.displayRotation;
+                    Log.w("SpiritLevel", " ROTATION = " + overlaysRotation);
+                    if ((overlaysRotation == 0) || (overlaysRotation == 180))
+                        rotateOverlays(overlaysRotation, getWindowManager().getDefaultDisplay().getHeight(), getWindowManager().getDefaultDisplay().getWidth());
+                    else
+                        rotateOverlays(overlaysRotation, getWindowManager().getDefaultDisplay().getWidth(), getWindowManager().getDefaultDisplay().getHeight());
                 }
 
                 // Show hint in camera mode
@@ -726,30 +628,19 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
                         mTextViewKeepScreenVertical.setVisibility(View.GONE);
                     }
                 }
-                // Apply Changes
-                mClinometerView.invalidate();
-
-                // You must put this setText here in order to force the re-layout also during the rotations.
-                // Without this, if you lock the measure during the rotation animation, the layout doesn't change correctly :(
-
-                formattedAngle0 = dataFormatter.format(angle[0]);
-                formattedAngle1 = dataFormatter.format(angle[1]);
-                formattedAngle2 = dataFormatter.format(angle[2]);
-                mTextViewAngles.setText(formattedAngle0 + "  " + formattedAngle1 + "  " + formattedAngle2);
-//                mTextViewAngles.setText(String.format("%1.1f°  %1.1f°  %1.1f°", angle[0], angle[1], angle[2]));
+                updateAnglesReadout();
             }
 
-            if (Math.abs(pid.getValue() - old_PIDValue) > 0.001) {
-                old_PIDValue = pid.getValue();
-                mClinometerView.invalidate();
-            }
+            // Apply Changes, if visible
+            mClinometerView.invalidateIfChanged();
 
-            if (Math.abs(bgpid.getValue() - old_bgPIDValue) > 0.001) {
+            // In single pass mode the background is drawn (and invalidated) by the ClinometerView
+            if ((mBackgroundView.getVisibility() == View.VISIBLE) && (Math.abs(bgpid.getValue() - old_bgPIDValue) > 0.001)) {
                 old_bgPIDValue = bgpid.getValue();
                 mBackgroundView.invalidate();
             }
         }
-    }
+    };
 
 
     @Override
@@ -799,27 +690,65 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
 
         prefExposureCompensation = preferences.getInt(KEY_PREF_CAMERA_EXPOSURE_COMPENSATION, 0);
 
-        angle_calibration[0]    = preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_0, 0);
-        angle_calibration[1]    = preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_1, 0);
-        angle_calibration[2]    = preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_2, 0);
-        gravity_gain[0]         = preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_0, 1);
-        gravity_gain[1]         = preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_1, 1);
-        gravity_gain[2]         = preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_2, 1);
-        gravity_offset[0]       = preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_0, 0);
-        gravity_offset[1]       = preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_1, 0);
-        gravity_offset[2]       = preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_2, 0);
-
-        calibrationMatrix[0][0] = (float) (Math.cos(Math.toRadians(angle_calibration[2])) * Math.cos(Math.toRadians(angle_calibration[0])) + Math.sin(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[1])) * Math.sin(Math.toRadians(angle_calibration[0])));
-        calibrationMatrix[0][1] = (float) (Math.cos(Math.toRadians(angle_calibration[1])) * Math.sin(Math.toRadians(angle_calibration[0])));
-        calibrationMatrix[0][2] = (float) (-Math.sin(Math.toRadians(angle_calibration[2])) * Math.cos(Math.toRadians(angle_calibration[0])) + Math.cos(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[1])) * Math.sin(Math.toRadians(angle_calibration[0])));
-
-        calibrationMatrix[1][0] = (float) (-Math.cos(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[0])) + Math.sin(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[1])) * Math.cos(Math.toRadians(angle_calibration[0])));
-        calibrationMatrix[1][1] = (float) (Math.cos(Math.toRadians(angle_calibration[1])) * Math.cos(Math.toRadians(angle_calibration[0])));
-        calibrationMatrix[1][2] = (float) (Math.sin(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[0])) + Math.cos(Math.toRadians(angle_calibration[2])) * Math.sin(Math.toRadians(angle_calibration[1])) * Math.cos(Math.toRadians(angle_calibration[0])));
-
-        calibrationMatrix[2][0] = (float) (Math.sin(Math.toRadians(angle_calibration[2])) * Math.cos(Math.toRadians(angle_calibration[1])));
-        calibrationMatrix[2][1] = (float) (-Math.sin(Math.toRadians(angle_calibration[1])));
-        calibrationMatrix[2][2] = (float) (Math.cos(Math.toRadians(angle_calibration[2])) * Math.cos(Math.toRadians(angle_calibration[1])));
+        prefSinglePassRendering = preferences.getBoolean(KEY_PREF_SINGLE_PASS_RENDERING, false);
+        mClinometerView.setBackgroundDrawn(prefSinglePassRendering);
+        updateBackgroundViewVisibility();
+
+        prefSensorThread = preferences.getBoolean(KEY_PREF_SENSOR_THREAD, true);
+    }
+
+
+    /**
+     * Starts or stops the sensor thread, as set in the preferences.
+     * When the thread is stopped, the method waits for the samples it has already
+     * dequeued, so that the InclinationEngine is never used by two threads at once.
+     */
+    private void updateSensorThread() {
+        if (prefSensorThread && (sensorThread == null)) {
+            sensorThread = new HandlerThread("ClinometerSensor", Process.THREAD_PRIORITY_DISPLAY);
+            sensorThread.start();
+            sensorHandler = new Handler(sensorThread.getLooper());
+        } else if (!prefSensorThread && (sensorThread != null)) {
+            sensorHandler = null;
+            sensorThread.quitSafely();
+            try {
+                sensorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sensorThread = null;
+        }
+    }
+
+
+    /**
+     * Creates the Input Source selected in the preferences and registers its listeners.
+     * The InclinationEngine is set up for the new source on the sensor thread, where the samples
+     * of the previous registration may still be queued: the set up is posted before the
+     * registration, so it runs after them and before the samples of the new source.
+     */
+    private void startInputSource() {
+        updateSensorThread();
+
+        // Falls back to the accelerometers alone if the device hasn't the sensors of the selected Input Source
+        InputSource selectedInputSource = InputSource.create(Integer.parseInt(preferences.getString(KEY_PREF_INPUT_SOURCE, String.valueOf(InputSource.ACCELEROMETER))));
+        if (!selectedInputSource.isAvailable(mSensorManager)) selectedInputSource = InputSource.create(InputSource.ACCELEROMETER);
+
+        final InputSource newInputSource = selectedInputSource;
+        final CalibrationModel calibrationModel = clinometerApplication.getCalibrationModel();
+        Runnable setupRunnable = new Runnable() {
+            @Override
+            public void run() {
+                inputSource = newInputSource;
+                inputSource.setup(inclinationEngine);
+                inclinationEngine.setCalibrationModel(calibrationModel);
+            }
+        };
+        if (sensorHandler != null) sensorHandler.post(setupRunnable);
+        else setupRunnable.run();
+
+        // The samples are delivered to sensorHandler, or to the UI thread if it is null
+        newInputSource.registerListener(mSensorManager, this, sensorHandler);
     }
 
 
@@ -830,10 +759,18 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
     }
 
 
-    private void rotateOverlays(final float rotationAngle, final int newHeight, final int newWidth) {
-        if (animationR.isRunning()) animationR.cancel();
+    private void updateAnglesReadout() {
+        mAnglesReadoutView.setAngles(measurementSnapshot.angle);
+    }
 
-        animationR = ValueAnimator.ofFloat(0, 1);
+
+    /**
+     * Sets up the animation used for all the rotations of the overlays.
+     * The overlays fade out and in on a hardware layer, so each frame of the animation
+     * only changes the alpha of the layer. The overlays are rotated and laid out once,
+     * at the middle of the fade, when they are invisible.
+     */
+    private void setupOverlaysRotationAnimation() {
         animationR.setDuration(700);
         animationR.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
@@ -842,21 +779,40 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
                 float alpha = 2 * Math.abs(animatedValue - 0.5f);           // Transparency for Fades
                 //Log.d("SpiritLevel", "alpha = " + alpha);
                 mFrameLayoutOverlays.setAlpha(alpha);
-                if ((animatedValue >= 0.5f) && (mFrameLayoutOverlays.getRotation() != rotationAngle)) {
-                    //Log.d("SpiritLevel", "change parameters = " + rotationAngle + ", " + newWidth + ", " + newHeight);
-                    mFrameLayoutOverlays.getLayoutParams().height = newHeight;
-                    mFrameLayoutOverlays.getLayoutParams().width = newWidth;
-                    mFrameLayoutOverlays.setRotation(rotationAngle);
+                if ((animatedValue >= 0.5f) && isOverlaysRotationPending) {
+                    //Log.d("SpiritLevel", "change parameters = " + overlaysTargetRotation + ", " + overlaysTargetWidth + ", " + overlaysTargetHeight);
+                    isOverlaysRotationPending = false;
+                    mFrameLayoutOverlays.setRotation(overlaysTargetRotation);
+                    ViewGroup.LayoutParams layoutParams = mFrameLayoutOverlays.getLayoutParams();
+                    if ((layoutParams.height != overlaysTargetHeight) || (layoutParams.width != overlaysTargetWidth)) {
+                        layoutParams.height = overlaysTargetHeight;
+                        layoutParams.width = overlaysTargetWidth;
+                        mFrameLayoutOverlays.setLayoutParams(layoutParams);
+                    }
                 }
-                // You must put this setText here in order to force the re-layout also during the rotations.
-                // Without this, if you lock the measure during the rotation animation, the layout doesn't change correctly :(
-                formattedAngle0 = dataFormatter.format(angle[0]);
-                formattedAngle1 = dataFormatter.format(angle[1]);
-                formattedAngle2 = dataFormatter.format(angle[2]);
-                mTextViewAngles.setText(formattedAngle0 + "  " + formattedAngle1 + "  " + formattedAngle2);
-//                mTextViewAngles.setText(String.format("%1.1f°  %1.1f°  %1.1f°", angle[0], angle[1], angle[2]));
             }
         });
+        animationR.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                mFrameLayoutOverlays.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                mFrameLayoutOverlays.setLayerType(View.LAYER_TYPE_NONE, null);
+                mFrameLayoutOverlays.setAlpha(1.0f);
+            }
+        });
+    }
+
+
+    private void rotateOverlays(float rotationAngle, int newHeight, int newWidth) {
+        overlaysTargetRotation = rotationAngle;
+        overlaysTargetHeight = newHeight;
+        overlaysTargetWidth = newWidth;
+        isOverlaysRotationPending = true;
+        if (animationR.isRunning()) animationR.cancel();
         animationR.start();
     }
 
@@ -923,20 +879,29 @@ public class ClinometerActivity extends AppCompatActivity implements SensorEvent
             }
             mImageViewCamera.setAlpha(1.0f);
             mLinearLayoutToolbar.setBackgroundResource(R.drawable.rounded_corner);
-            mBackgroundView.setVisibility(View.GONE);
         } else {
             // Switch OFF the Camera Mode
             releaseCamera(false);
             mImageViewCamera.setAlpha(0.4f);
             mLinearLayoutToolbar.setBackground(null);
-            mBackgroundView.setVisibility(View.VISIBLE);
             mImageViewCameraImage.setVisibility(View.GONE);
         }
+        isInCameraMode = result;
+        updateBackgroundViewVisibility();
         mClinometerView.invalidate();
         return result;
     }
 
 
+    /**
+     * Shows the BackgroundView only when needed: in camera mode the background is the camera image,
+     * and in single pass mode the background is drawn by the ClinometerView.
+     */
+    private void updateBackgroundViewVisibility() {
+        mBackgroundView.setVisibility((isInCameraMode || prefSinglePassRendering) ? View.GONE : View.VISIBLE);
+    }
+
+
     /** Activate the Camera Preview */
     private boolean activateCamera() {
         if (isCameraLivePreviewActive) return true;
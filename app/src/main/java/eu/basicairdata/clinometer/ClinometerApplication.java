@@ -51,6 +51,9 @@ public class ClinometerApplication extends Application {
     public static final String KEY_PREF_ONLINE_HELP                   = "prefOnlineHelp";
     public static final String KEY_PREF_KEEP_SCREEN_ON                = "prefKeepScreenOn";
     public static final String KEY_PREF_UNIT_OF_MEASUREMENT           = "prefUnitOfMeasurement";
+    public static final String KEY_PREF_INPUT_SOURCE                  = "prefInputSource";
+    public static final String KEY_PREF_SINGLE_PASS_RENDERING         = "prefSinglePassRendering";
+    public static final String KEY_PREF_SENSOR_THREAD                 = "prefSensorThread";
     public static final String KEY_PREF_CALIBRATION_ANGLE_0           = "prefCalibrationAngle0";
     public static final String KEY_PREF_CALIBRATION_ANGLE_1           = "prefCalibrationAngle1";
     public static final String KEY_PREF_CALIBRATION_ANGLE_2           = "prefCalibrationAngle2";
@@ -71,6 +74,16 @@ public class ClinometerApplication extends Application {
     private SharedPreferences preferences;
     private int prefUM = 0;
 
+    private CalibrationModel calibrationModel = null;                                  // The cached calibration, null when it must be rebuilt
+
+    // Invalidates the cached CalibrationModel when the calibration changes
+    private final SharedPreferences.OnSharedPreferenceChangeListener calibrationListener = new SharedPreferences.OnSharedPreferenceChangeListener() {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+            if ((key == null) || key.startsWith(KEY_PREF_CALIBRATION)) calibrationModel = null;
+        }
+    };
+
     private boolean hasACamera = false;                                                 // True if the device has at least a camera
     private boolean isCameraScanned = false;
     private final ArrayList<CameraInformation> listOfCameraInformation = new ArrayList<>();   // The list of Cameras of the device
@@ -107,6 +120,31 @@ public class ClinometerApplication extends Application {
         this.selectedCameraInformation = listOfCameraInformation.get(i);
     }
 
+    /**
+     * Returns the current calibration of the accelerometers.
+     * The model is built from the preferences only when the calibration changes.
+     */
+    public CalibrationModel getCalibrationModel() {
+        if (calibrationModel == null) {
+            if (preferences.contains(KEY_PREF_CALIBRATION_ANGLE_0)) {
+                calibrationModel = new CalibrationModel(
+                        new float[] {
+                                preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_0, 0),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_1, 0),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_ANGLE_2, 0) },
+                        new float[] {
+                                preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_0, 1),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_1, 1),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_GAIN_2, 1) },
+                        new float[] {
+                                preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_0, 0),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_1, 0),
+                                preferences.getFloat(KEY_PREF_CALIBRATION_OFFSET_2, 0) });
+            } else calibrationModel = CalibrationModel.IDENTITY;
+        }
+        return calibrationModel;
+    }
+
 
     // ----------------------------------------------------------------------------------------------------------------------
     // CLASS METHODS --------------------------------------------------------------------------------------------------------
@@ -118,6 +156,7 @@ public class ClinometerApplication extends Application {
         super.onCreate();
         singleton = this;
         preferences = PreferenceManager.getDefaultSharedPreferences(this);
+        preferences.registerOnSharedPreferenceChangeListener(calibrationListener);
         hasACamera = checkCameraHardware();         // checkCameraHardware() does NOT require CAMERA Permission
         //scanCameras();
     }
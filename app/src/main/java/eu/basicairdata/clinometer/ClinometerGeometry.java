@@ -0,0 +1,345 @@
+/*
+ * ClinometerGeometry - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * The geometry of the ClinometerView, without any dependency from Android.
+ * It turns the size of the View and the state of the Clinometer into the primitives to draw:
+ * line segments (in the format of Canvas.drawLines), arcs, the spirit bubble and the label anchors.
+ * All the primitives are computed once per frame into preallocated arrays, in screen coordinates,
+ * and replayed by both the black contrast pass and the white pass of the View.
+ */
+public class ClinometerGeometry {
+
+    public static final float N_CIRCLES_FULLY_VISIBLE = 4.5f;
+    public static final float R1_VALUE = 2;                 // The scale (to how many degrees corresponds each circle)
+    public static final int DASH_NUMBER = 12;               // The number of dashes for dashed line of major axis
+
+    public static final float TEXT_ALIGNMENT_LEFT = 0.0f;
+    public static final float TEXT_ALIGNMENT_CENTER = 0.5f;
+    public static final float TEXT_ALIGNMENT_RIGHT = 1.0f;
+    public static final float TEXT_ALIGNMENT_TOP = 1.0f;
+    public static final float TEXT_ALIGNMENT_BOTTOM = 0.0f;
+
+    // The labels, in drawing order
+    public static final int LABEL_ANGLE_Z = 0;              // The angle between the screen plane and the horizontal plane
+    public static final int LABEL_ANGLE_0 = 1;              // The angle[0], on the horizontal line of the cross
+    public static final int LABEL_ANGLE_1 = 2;              // The angle[1], on the vertical line of the cross
+    public static final int LABEL_ANGLE_2 = 3;              // The angle[2], on the spirit level horizon
+    public static final int LABEL_ARC_1 = 4;                // The angle of the Arc 1
+    public static final int LABEL_ARC_2 = 5;                // The angle of the Arc 2
+    public static final int LABELS_NUMBER = 6;
+
+    private static final int ANGLE2LABELSWITCH_THRESHOLD = 2;   // 2 Degrees of Threshold for switching L/R the Angle[2] label
+
+    // --------[ SIZE ]---------------------------------------------------------------------------------
+    // They change only with the size of the View
+
+    public int x;                           // The Width of Screen
+    public int y;                           // The Height of Screen
+    public int min_xy;                      // The minimum between Width and Height
+    public int max_xy;                      // The maximum between Width and Height
+    public int xc;                          // x screen center
+    public int yc;                          // y screen center
+    public double diag2c;                   // Screen Diagonal/2 = distance between 0:0 and xc:yc
+    public int ncircles;                    // The number of visible circles
+    public float r1;                        // The radius of the first circle = 1 deg.
+    public float bubbleRadius;              // The radius of the spirit bubble
+
+    // Dashed lines drawn as Array of Lines, because DashPathEffect is not supported by some devices
+    public final float[] dash = new float[20];                      // The dashed line of the major axis
+    public final float[] dashCamera = new float[DASH_NUMBER * 4];   // The dashed line of the camera mode
+    public float dashCameraLength;                                  // The length of each dash of the camera mode
+
+    private int textOffset;                 // The distance between text and its reference geometry
+    private float arcLabelHalfWidth;        // Half of the width of the labels of the arcs
+
+    // --------[ FRAME ]--------------------------------------------------------------------------------
+    // They change with the state of the Clinometer
+
+    public float xs;                        // The X Coordinate of the spirit bubble
+    public float ys;                        // The Y Coordinate of the spirit bubble
+    public final float[] cross = new float[8];                  // The 2 lines of the cross on the bubble
+    public final float[] gradientAndHorizon = new float[8];     // The max gradient and the horizon lines
+    public final float[] spiritHorizon = new float[4];          // The spirit level horizon line (only if not flat)
+    public float horizonRotation;                               // The rotation of the spirit level horizon background
+    public final float[] horizonRect = new float[4];            // The spirit level horizon background, before the rotation
+
+    public final float[] arcRadius = new float[2];              // The radius of the 2 arcs
+    public final float[] arcStart = new float[2];               // The start angle of the 2 arcs (in degrees)
+    public final float[] arcSweep = new float[2];               // The sweep angle of the 2 arcs (in degrees)
+    public final boolean[] isArcVisible = new boolean[2];
+
+    public final float[] labelValue = new float[LABELS_NUMBER];                 // The angle to show (in degrees)
+    public final float[] labelAnchor = new float[LABELS_NUMBER * 2];            // The x, y of the anchor point
+    public final float[] labelRotation = new float[LABELS_NUMBER];              // The rotation around the anchor point
+    public final float[] labelHorizontalAlignment = new float[LABELS_NUMBER];   // One of the TEXT_ALIGNMENT_* constants
+    public final float[] labelVerticalAlignment = new float[LABELS_NUMBER];     // One of the TEXT_ALIGNMENT_* constants
+    public final boolean[] isLabelVisible = new boolean[LABELS_NUMBER];
+
+    private boolean isAngle2LabelOnLeft = true;     // True if the label of the Angle[2] must be placed on left instead of right
+
+
+    /**
+     * Computes the geometry that depends only on the size of the View.
+     *
+     * @param w The Width of the View
+     * @param h The Height of the View
+     * @param textOffset The distance between text and its reference geometry (in pixels)
+     * @param arcLabelHalfWidth Half of the width of the labels of the arcs (in pixels)
+     */
+    public void setSize(int w, int h, int textOffset, float arcLabelHalfWidth) {
+        this.textOffset = textOffset;
+        this.arcLabelHalfWidth = arcLabelHalfWidth;
+
+        x = w;
+        y = h;
+        min_xy = Math.min(x, y);
+        max_xy = Math.max(x, y);
+        xc = x / 2;                                     // x screen center
+        yc = y / 2;                                     // y screen center
+        diag2c = Math.sqrt(xc * xc + yc * yc);          // Screen Diagonal/2 = distance between 0:0 and xc:yc
+        ncircles = (int) Math.ceil(N_CIRCLES_FULLY_VISIBLE * 2 * diag2c / min_xy);
+        // The number of circles to be drawn
+        r1 = (min_xy / 2.0f) / N_CIRCLES_FULLY_VISIBLE; // The radius of the first circle.
+        bubbleRadius = r1 / 4;
+
+        float j  = max_xy * 0.011f;                     // the space between lines for Dashed Line
+        float ll = max_xy * 0.15625f;                   // Long Line length
+        float ls = max_xy * 0.015625f;                  // Short Line length
+
+        dash[0] = xc;
+        dash[1] = yc;
+        dash[2] = dash[0] - ll;
+        dash[3] = yc;
+
+        dash[4] = dash[2] - j;
+        dash[5] = yc;
+        dash[6] = dash[4] - ls;
+        dash[7] = yc;
+
+        dash[8] = dash[6] - j;
+        dash[9] = yc;
+        dash[10] = dash[8] - ll;
+        dash[11] = yc;
+
+        dash[12] = dash[10] - j;
+        dash[13] = yc;
+        dash[14] = dash[12] - ls;
+        dash[15] = yc;
+
+        dash[16] = dash[14] - j;
+        dash[17] = yc;
+        dash[18] = xc - (float) diag2c;
+        dash[19] = yc;
+
+        dashCameraLength = max_xy / (float)(DASH_NUMBER * 8);
+        for (int i = 0; i < DASH_NUMBER * 4; i = i + 4) {
+            dashCamera[i] = xc - (dashCameraLength * i);
+            dashCamera[i + 1] = yc;
+            dashCamera[i + 2] = xc - (dashCameraLength * i + dashCameraLength * 2);
+            dashCamera[i + 3] = yc;
+        }
+    }
+
+
+    /**
+     * Computes the primitives of a frame.
+     *
+     * @param angles The 3 angles (in degrees)
+     * @param angleXY The angle on the horizontal plane (in degrees)
+     * @param angleXYZ The angle between XY vector and the vertical (in degrees)
+     * @param angleTextLabels The rotation angle for the text labels
+     * @param isFlat True if the device is oriented flat
+     * @param displayRotation The rotation angle from the natural position of the device
+     * @param refAxis The reference axis for the white angles (in degrees)
+     * @param refAngleXYZ The reference angle between the screen plane and the horizontal plane (in degrees)
+     * @param um The unit of measurement (one of the AngleFormat.UM_* constants)
+     */
+    public void update(float[] angles, float angleXY, float angleXYZ, float angleTextLabels, boolean isFlat,
+                       float displayRotation, float refAxis, float refAngleXYZ, int um) {
+
+        // --------[ SPIRIT LEVEL ]-----------------------------------------------------------------
+
+        xs = xc + angles[0] * r1 / R1_VALUE;  // The X coordinate of the spirit bubble center
+        ys = yc - angles[1] * r1 / R1_VALUE;  // The Y coordinate of the spirit bubble center
+
+        cross[0] = 0;
+        cross[1] = ys;
+        cross[2] = x;
+        cross[3] = ys;
+        cross[4] = xs;
+        cross[5] = 0;
+        cross[6] = xs;
+        cross[7] = y;
+
+        // Max Gradient and Horizon, rotated by angleXY (the angle between absolute 3 o'clock and the white axis)
+        rotate(xc - min_xy / 2 + r1 / 2, yc, angleXY, gradientAndHorizon, 0);
+        rotate((float) -diag2c, yc, angleXY, gradientAndHorizon, 2);
+        rotate(xc - (xc + yc), yc, angleXY + 90, gradientAndHorizon, 4);
+        rotate(xc + (xc + yc), yc, angleXY + 90, gradientAndHorizon, 6);
+
+        // Spirit level Horizon and its background
+        horizonRotation = angleXY + 90;
+        horizonRect[0] = (int) (xc - diag2c);
+        horizonRect[1] = yc + (int) ((90 - angleXYZ) * r1 / R1_VALUE);
+        horizonRect[2] = (int) (xc + diag2c);
+        horizonRect[3] = (int) (yc + diag2c);
+        rotate(horizonRect[0], horizonRect[1], horizonRotation, spiritHorizon, 0);
+        rotate(horizonRect[2], horizonRect[1], horizonRotation, spiritHorizon, 2);
+
+        // --------[ ARCS ]-------------------------------------------------------------------------
+
+        float horizon_angle_deg = angleXY + 90;
+        float angle1Start = refAxis;
+        float angle1Extension = (360 + (horizon_angle_deg % 180) - refAxis) % 180;
+        float angle2Start = 180 + refAxis;
+        float angle2Extension = - 180 - (- 360 + refAxis - horizon_angle_deg) % 180;
+
+        // Set the position of the arcs in order to avoid to switch from internal to the external one
+        float angle1OffsetFromR;
+        float angle2OffsetFromR;
+        if (((angleXY - angle1Start + 360) % 360 < 270) && ((angleXY - angle1Start + 360) % 360 >= 90)) {
+            angle1OffsetFromR = 0.1f;
+            angle2OffsetFromR = -0.1f;
+        } else {
+            angle1OffsetFromR = -0.1f;
+            angle2OffsetFromR = 0.1f;
+        }
+
+        arcRadius[0] = (2.0f + angle1OffsetFromR) * r1;
+        arcStart[0] = angle1Start + 2;
+        arcSweep[0] = angle1Extension - 4;
+        isArcVisible[0] = (um < AngleFormat.UM_PERCENT) || (Math.abs(angle1Extension) <= 90);
+        arcRadius[1] = (2.0f + angle2OffsetFromR) * r1;
+        arcStart[1] = angle2Start - 2;
+        arcSweep[1] = angle2Extension + 4;
+        isArcVisible[1] = (um < AngleFormat.UM_PERCENT) || (Math.abs(angle2Extension) <= 90);
+
+        // --------[ LABELS ]-----------------------------------------------------------------------
+
+        // Angle Z
+        setLabel(LABEL_ANGLE_Z, 90 - (angles[2] + refAngleXYZ), true,
+                (int) (min_xy - r1), yc, angleXY + 180,
+                TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER, angleTextLabels - angleXY - 180);
+
+        // Angle 0 + 1
+        boolean isRotationValid = true;
+        if (displayRotation == 0f) {
+            setLabel(LABEL_ANGLE_0, angles[0], true, (int) xs - textOffset, y - textOffset, 0,
+                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, 0);
+            setLabel(LABEL_ANGLE_1, angles[1], true, textOffset, (int) ys - textOffset, 0,
+                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, 0);
+        } else if (displayRotation == 90f) {
+            setLabel(LABEL_ANGLE_0, angles[0], true, (int) xs + textOffset, textOffset, 0,
+                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, 90);
+            setLabel(LABEL_ANGLE_1, angles[1], true, textOffset, (int) ys - textOffset, 0,
+                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, 90);
+        } else if (displayRotation == 180f) {
+            setLabel(LABEL_ANGLE_0, angles[0], true, (int) xs + textOffset, textOffset, 0,
+                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, 180);
+            setLabel(LABEL_ANGLE_1, angles[1], true, x - textOffset, (int) ys + textOffset, 0,
+                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, 180);
+        } else if (displayRotation == 270f) {
+            setLabel(LABEL_ANGLE_0, angles[0], true, (int) xs - textOffset, y - textOffset, 0,
+                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, 270);
+            setLabel(LABEL_ANGLE_1, angles[1], true, x - textOffset, (int) ys + textOffset, 0,
+                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, 270);
+        } else isRotationValid = false;
+        isLabelVisible[LABEL_ANGLE_0] = isRotationValid;
+        isLabelVisible[LABEL_ANGLE_1] = isRotationValid;
+
+        // Angle 2
+        if (!isFlat) {
+            if ((Math.abs(angles[2]) > ANGLE2LABELSWITCH_THRESHOLD)
+                    && (Math.abs(angles[0]) > ANGLE2LABELSWITCH_THRESHOLD)
+                    && (Math.abs(angles[1]) > ANGLE2LABELSWITCH_THRESHOLD)) {
+                // Switch evaluation
+                isAngle2LabelOnLeft = false;
+                if (((displayRotation == 0f) || (displayRotation == 180f)) &&
+                        (angles[2] * angles[0] < 0)) isAngle2LabelOnLeft = true;
+                if (((displayRotation == 90f) || (displayRotation == 270f)) &&
+                        (angles[2] * angles[1] < 0)) isAngle2LabelOnLeft = true;
+                if ((displayRotation == 180f) || (displayRotation == 270f)) isAngle2LabelOnLeft = !isAngle2LabelOnLeft;
+            }
+
+            float angle2Rotation = 0;
+            if (displayRotation == 0f) angle2Rotation = angles[0];
+            if (displayRotation == 90f) angle2Rotation = - 270 - angles[1];
+            if (displayRotation == 180f) angle2Rotation = 180 - angles[0];
+            if (displayRotation == 270f) angle2Rotation = + 270 + angles[1];
+
+            // The label is translated along the rotated vertical axis by the angle[2]
+            setLabel(LABEL_ANGLE_2, angles[2], true,
+                    isAngle2LabelOnLeft ? textOffset : x - textOffset,
+                    yc - textOffset + angles[2] * r1 / R1_VALUE, angle2Rotation,
+                    isAngle2LabelOnLeft ? TEXT_ALIGNMENT_LEFT : TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, 0);
+        } else isLabelVisible[LABEL_ANGLE_2] = false;
+
+        // Arcs
+        float arcLabelsRotation = angle1Start + angle1Extension / 2;
+        setLabel(LABEL_ARC_1, Math.abs(angle1Extension), isArcVisible[0],
+                (int) (xc + (r1 * (2.1f + angle1OffsetFromR)) + (textOffset * 1.5) + arcLabelHalfWidth), yc,
+                arcLabelsRotation, TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
+                -angle1Extension / 2 - refAxis + angleTextLabels);
+        setLabel(LABEL_ARC_2, Math.abs(angle2Extension), isArcVisible[1],
+                (int) (xc + (r1 * (2.1f + angle2OffsetFromR)) + (textOffset * 1.5) + arcLabelHalfWidth), yc,
+                arcLabelsRotation + 90, TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
+                -angle1Extension / 2 - 90 - refAxis + angleTextLabels);
+    }
+
+
+    /**
+     * Sets a label placed at (px, py) on a plane rotated by planeRotation around the center of the screen.
+     * The anchor is stored in screen coordinates, and the rotation of the plane is added to the rotation of the text.
+     */
+    private void setLabel(int label, float value, boolean isVisible, float px, float py, float planeRotation,
+                          float horizontalAlignment, float verticalAlignment, float textRotation) {
+        labelValue[label] = value;
+        isLabelVisible[label] = isVisible;
+        rotate(px, py, planeRotation, labelAnchor, label * 2);
+        labelRotation[label] = planeRotation + textRotation;
+        labelHorizontalAlignment[label] = horizontalAlignment;
+        labelVerticalAlignment[label] = verticalAlignment;
+    }
+
+
+    /**
+     * Rotates the point (px, py) around the center of the screen,
+     * with the same convention of Canvas.rotate.
+     *
+     * @param px The x of the point
+     * @param py The y of the point
+     * @param degrees The rotation (in degrees)
+     * @param dst The destination array
+     * @param index The position of the rotated x into dst; the rotated y is written at index + 1
+     */
+    private void rotate(float px, float py, float degrees, float[] dst, int index) {
+        double radians = Math.toRadians(degrees);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float dx = px - xc;
+        float dy = py - yc;
+        dst[index] = xc + dx * cos - dy * sin;
+        dst[index + 1] = yc + dx * sin + dy * cos;
+    }
+}
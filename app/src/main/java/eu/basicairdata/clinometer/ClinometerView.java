@@ -25,8 +25,9 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.Rect;
+import android.graphics.Picture;
 import android.graphics.RectF;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.util.Log;
@@ -38,19 +39,22 @@ public class ClinometerView extends View {
     private static final float TEXT_OFFSET = 10.0f;             // The distance in dp between text and its reference geometry
     private static final double TOUCH_ANGLE_TOLERANCE = 30;     // The tolerance (+-) for the Touch events that rotate the reference axis
 
-    private static final float TEXT_ALIGNMENT_LEFT = 0.0f;
-    private static final float TEXT_ALIGNMENT_CENTER = 0.5f;
-    private static final float TEXT_ALIGNMENT_RIGHT = 1.0f;
-    private static final float TEXT_ALIGNMENT_TOP = 1.0f;
-    private static final float TEXT_ALIGNMENT_BOTTOM = 0.0f;
-    private static final float TEXT_ROTATION_0 = 0.0f;
-    private static final float TEXT_ROTATION_90 = 90.0f;
-    private static final float TEXT_ROTATION_180 = 180.0f;
-    private static final float TEXT_ROTATION_270 = 270.0f;
-
-    private static final float N_CIRCLES_FULLY_VISIBLE = 4.5f;
     private static final float CONTRAST_STROKE = 6f;
-    private static final int DASH_NUMBER = 12;              // The number of dashes for dashed line of major axis
+
+    // The static layers, that change only with the size of the View.
+    // They are recorded once into Pictures, and drawn rotated when needed.
+    // Hardware accelerated Canvases support drawPicture only from Android 6.0: on older devices they are drawn directly
+    private static final boolean ARE_LAYERS_CACHED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+    private static final int LAYER_BACKGROUND_LINES = 0;    // The lines every 30°, rotated by refbgAxis
+    private static final int LAYER_CAMERA_LINES = 1;        // The dashed axes of the camera mode
+    private static final int LAYER_AXES_CONTRAST = 2;       // The black contrast of the reference axes, rotated by refAxis
+    private static final int LAYER_AXES = 3;                // The reference axes, rotated by refAxis
+    private static final int LAYER_CIRCLES = 4;             // The background circles
+    private static final int LAYERS_NUMBER = 5;
+
+    private static final int LABEL_SPRITES_NUMBER = 32;     // The number of cached labels
+    private static final float TEXT_SHADOW_RADIUS = 6;      // The radius of the blurred shadow of the labels
+    private static final int STATE_SIZE = 12;               // The number of the quantized values of the visible state
 
     private final ClinometerActivity clinometerActivity = ClinometerActivity.getInstance();
     private final ClinometerApplication clinometerApplication = ClinometerApplication.getInstance();
@@ -69,34 +73,29 @@ public class ClinometerView extends View {
     private Paint paint_bg_horizon;         // For Horizon Background
 
     private DataFormatter dataFormatter = new DataFormatter(); // Formatter for angles
-    private String formattedAngle;
 
-    private final Rect textbounds = new Rect();
-    private final RectF arcRectF = new RectF();
+    private final Picture[] layers = new Picture[LAYERS_NUMBER];
+
+    // The visible state of the last invalidation, quantized (see invalidateIfChanged)
+    private final int[] state = new int[STATE_SIZE];
+    private final int[] drawnState = new int[STATE_SIZE];
+    private final char[] labels = new char[6 * (AngleFormat.BUFFER_SIZE + 1)];
+    private final char[] drawnLabels = new char[6 * (AngleFormat.BUFFER_SIZE + 1)];
+    private int drawnLabelsLength = -1;
+    private final int[] labelStart = new int[ClinometerGeometry.LABELS_NUMBER];    // The position of each label in the buffers
+    private final int[] labelEnd = new int[ClinometerGeometry.LABELS_NUMBER];
+    private LabelSpriteCache labelSpriteCache;              // The labels rasterized with their shadow
+    private Paint paint_Sprite;                             // For the blit of the labels
+
+    private BackgroundRenderer backgroundRenderer;          // Draws the background in single pass mode
+    private boolean isBackgroundDrawn = false;              // True if the View draws also the background (single pass mode)
 
-    private int x;                      // The Width of Screen
-    private int y;                      // The Height of Screen
-    private int min_xy;                 // The minimum between Width and Height
-    private int max_xy;                 // The maximum between Width and Height
-    private int xc;                     // x screen center
-    private int yc;                     // y screen center
-    private double diag2c;              // Screen Diagonal/2 = distance between 0:0 and xc:yc
-    private int ncircles;               // The number of visible circles
-    private float xs;                   // The X Coordinate of the spirit bubble
-    private float ys;                   // The Y Coordinate of the spirit bubble
-    private float r1_value;             // The scale (to how many degrees corresponds each circle)
-    private float r1;                   // The radius of the first circle = 1 deg.
-
-    private float dash[] = new float[20];   // The Array of Lines for Dashed Line
-    private float dashCamera[] = new float[DASH_NUMBER * 4];   // The Array of Lines for Dashed Line
-    private float j;                        // the space between lines for Dashed Line
-    private float ll, ls;                   // Long Line and Short Line length
+    private final ClinometerGeometry geometry = new ClinometerGeometry();  // The primitives to draw
+    private boolean isGeometryUpdated = false;              // True if the geometry has been updated for the current size
+    private final RectF arcRectF = new RectF();
 
     private int i;                      // A counter for onDraw();
-    private float r;
     private int angle;
-    private float angle1OffsetFromR = -0.1f;
-    private float angle2OffsetFromR = 0.1f;
 
     private float angles[] = {0, 0, 0};
     private boolean isFlat;
@@ -106,25 +105,12 @@ public class ClinometerView extends View {
     private float angleTextLabels;
 
     private int textOffsetPx = 0;
-    float dashCameraLength;
-
-
-    private float rot_angle_rad;            // The angle of rotation between absolute 3 o'clock and the white axis
-    private float horizon_angle_deg;        // Horizon angle
-
-    private float angle1Start;         // The Arc 1 start
-    private float angle2Start;         // The Arc 2 start
-    private float angle1Extension;     // The Arc 1 angle (+)
-    private float angle2Extension;     // The Arc 2 angle (-)
 
     private float refAxis = 0;             // The reference axis for white Angles
     private float refbgAxis = 0;           // The reference axis for ref Angles
     // 0  = Horizontal axis
     // 90 = Vertical axis
 
-    private boolean isAngle2LabelOnLeft = true;                 // True if the label of the Angle[2] must be placed on left instead of right
-    private static final int ANGLE2LABELSWITCH_THRESHOLD = 2;   // 2 Degrees of Threshold for switching L/R the Angle[2] label
-
 
     public ClinometerView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -215,9 +201,18 @@ public class ClinometerView extends View {
         paint_ShadowText.setDither(true);
         paint_ShadowText.setAntiAlias(true);
         paint_ShadowText.setTextSize(getResources().getDimensionPixelSize(R.dimen.myFontSize));
-        paint_ShadowText.setShadowLayer(6, 0, 0, Color.BLACK);
+        paint_ShadowText.setShadowLayer(TEXT_SHADOW_RADIUS, 0, 0, Color.BLACK);
         paint_ShadowText.setFakeBoldText(true);
 
+        paint_Sprite = new Paint();
+        paint_Sprite.setFilterBitmap(true);
+
+        backgroundRenderer = new BackgroundRenderer(getResources());
+
+        // The margin of the sprites contains the stroke and the blur (about 2 * radius) of the shadow
+        labelSpriteCache = new LabelSpriteCache(LABEL_SPRITES_NUMBER, paint_ShadowText,
+                (int) Math.ceil(paint_ShadowText.getStrokeWidth() / 2 + 2 * TEXT_SHADOW_RADIUS));
+
         paint_Arc = new Paint();
         paint_Arc.setColor(getResources().getColor(R.color.line_white));
         paint_Arc.setStyle(Paint.Style.STROKE);
@@ -265,9 +260,109 @@ public class ClinometerView extends View {
 
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        //super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        geometry.setSize(w, h, textOffsetPx, paint_White.measureText("100.0°") / 2);
+        isGeometryUpdated = false;
+
+        // The static layers must be recorded again with the new geometry
+        for (i = 0; i < LAYERS_NUMBER; i++) layers[i] = null;
+        backgroundRenderer.setGeometry(geometry.x, geometry.y, geometry.xc, geometry.yc, geometry.diag2c, geometry.r1);
+    }
+
+
+    /**
+     * Sets whether the View draws also the background, that is otherwise drawn by the BackgroundView.
+     * Drawing the whole screen in a single pass avoids to fill every pixel twice at each frame.
+     * The background is never drawn in camera mode.
+     *
+     * @param isBackgroundDrawn true to draw the background
+     */
+    public void setBackgroundDrawn(boolean isBackgroundDrawn) {
+        if (this.isBackgroundDrawn == isBackgroundDrawn) return;
+        this.isBackgroundDrawn = isBackgroundDrawn;
+        invalidate();
+    }
+
+
+    /**
+     * Draws a static layer, from its cached Picture if supported.
+     *
+     * @param canvas The Canvas
+     * @param layer The layer (one of the LAYER_* constants)
+     */
+    private void drawLayer(Canvas canvas, int layer) {
+        if (!ARE_LAYERS_CACHED) {
+            drawLayerContent(canvas, layer);
+            return;
+        }
+        if (layers[layer] == null) {
+            layers[layer] = new Picture();
+            drawLayerContent(layers[layer].beginRecording(geometry.x, geometry.y), layer);
+            layers[layer].endRecording();
+        }
+        canvas.drawPicture(layers[layer]);
+    }
 
+
+    /**
+     * Draws the content of a static layer.
+     *
+     * @param canvas The Canvas
+     * @param layer The layer (one of the LAYER_* constants)
+     */
+    private void drawLayerContent(Canvas canvas, int layer) {
+        int xc = geometry.xc;
+        int yc = geometry.yc;
+        switch (layer) {
+            case LAYER_BACKGROUND_LINES:
+                canvas.save();
+                for (angle = 0; angle < 360; angle += 30) {
+                    if (angle % 90 == 0) canvas.drawLines(geometry.dash, 0, 20, paint_LTGray);
+                    else canvas.drawLine(xc + (int) (geometry.diag2c), yc, xc + (int) (geometry.r1), yc, paint_LTGray);
+                    canvas.rotate(30, xc, yc);
+                }
+                canvas.restore();
+                break;
+
+            case LAYER_CAMERA_LINES:
+                canvas.save();
+                for (i = 0; i < 4; i++) {
+                    canvas.drawLines(geometry.dashCamera, 0, ClinometerGeometry.DASH_NUMBER * 4, paint_WhiteDashCamera);
+                    canvas.save();
+                    canvas.translate(- geometry.dashCameraLength * 2, 0);
+                    canvas.drawLines(geometry.dashCamera, 0, ClinometerGeometry.DASH_NUMBER * 4, paint_BlackDashCamera);
+                    canvas.restore();
+                    if (i < 3) canvas.rotate(90, xc, yc);
+                }
+                canvas.restore();
+                break;
+
+            case LAYER_AXES_CONTRAST:
+            case LAYER_AXES:
+                canvas.save();
+                canvas.drawLines(geometry.dash, 0, 20, layer == LAYER_AXES ? paint_White : paint_Black15);
+                canvas.rotate(180, xc, yc);
+                canvas.drawLines(geometry.dash, 0, 20, layer == LAYER_AXES ? paint_White : paint_Black15);
+                canvas.restore();
+                break;
+
+            case LAYER_CIRCLES:
+                for (i = 1; i <= geometry.ncircles; i = i + 1)
+                    canvas.drawCircle(xc, yc, Math.round(geometry.r1 * i), paint_LTGray);
+                //for (int i = 2; i <= ncircles*2; i=i+2) canvas.drawCircle(xc, yc, Math.round(r1*i), paint);
+                //for (int i = 3; i <= ncircles*2; i=i+2) canvas.drawCircle(xc, yc, Math.round(r1*i), paint_secondary);
+                break;
+        }
+    }
+
+
+    /**
+     * Reads the state of the Clinometer and calculates the positions of the dynamic elements.
+     * It is called once per frame by invalidateIfChanged(); onDraw() reuses the result.
+     */
+    private void readState() {
         angles = clinometerActivity.getAngles();
         angleXY = clinometerActivity.getAngleXY();
         angleXYZ = clinometerActivity.getAngleXYZ();
@@ -277,88 +372,95 @@ public class ClinometerView extends View {
         refAxis = clinometerActivity.getPIDValue();
         refbgAxis = clinometerActivity.getbgPIDValue();
 
-        // --------[ CALCULATIONS ]-----------------------------------------------------------------
-
-        x = getWidth();
-        y = getHeight();
-        min_xy = Math.min(x, y);
-        max_xy = Math.max(x, y);
-        xc = x / 2;                                     // x screen center
-        yc = y / 2;                                     // y screen center
-        diag2c = Math.sqrt(xc * xc + yc * yc);          // Screen Diagonal/2 = distance between 0:0 and xc:yc
-        r1_value = 2;                                   // The scale (to how many degrees corresponds each circle)
-        ncircles = (int) Math.ceil(N_CIRCLES_FULLY_VISIBLE * 2 * diag2c / min_xy);
-        // The number of circles to be drawn
-        r1 = (min_xy / 2.0f) / N_CIRCLES_FULLY_VISIBLE; // The radius of the first circle.
-
-        xs = xc + angles[0] * r1 / r1_value;  // The X coordinate of the spirit bubble center
-        ys = yc - angles[1] * r1 / r1_value;  // The X coordinate of the spirit bubble center
-
-        rot_angle_rad = (float) Math.toRadians(angleXY);
-        // The angle of rotation between absolute 3 o'clock and the white axis
-        horizon_angle_deg = angleXY + 90;    // The angle of rotation between absolute 3 o'clock and the white axis
-
-        angle1Start = refAxis;
-        angle1Extension = (360 + (horizon_angle_deg % 180) - refAxis) % 180;
-        angle2Start = 180 + refAxis;
-        angle2Extension = - 180 - (- 360 + refAxis - horizon_angle_deg) % 180;
-
-        // Set the position of the arcs in order to avoid to switch from internal to the external one
-        if (((angleXY - angle1Start + 360) % 360 < 270) && ((angleXY - angle1Start + 360) % 360 >= 90)) {
-            angle1OffsetFromR = 0.1f;
-            angle2OffsetFromR = -0.1f;
-        } else {
-            angle1OffsetFromR = -0.1f;
-            angle2OffsetFromR = 0.1f;
+        geometry.update(angles, angleXY, angleXYZ, angleTextLabels, isFlat, displayRotation, refAxis,
+                clinometerActivity.getRefAngleXYZ(), clinometerApplication.getPrefUM());
+        isGeometryUpdated = true;
+    }
+
+
+    /**
+     * Writes into the buffer all the texts of the labels, each one preceded by a new line
+     * that leaves room for the "+" sign of the delta angle.
+     * The position of each text is stored in labelStart and labelEnd; the texts are drawn
+     * directly from the buffer, so they are formatted only once per frame.
+     *
+     * @param buffer The destination of the texts
+     * @return The length of the texts
+     */
+    private int formatLabels(char[] buffer) {
+        int length = 0;
+        for (i = 0; i < ClinometerGeometry.LABELS_NUMBER; i++) {
+            buffer[length] = '\n';
+            labelStart[i] = length + 1;
+            labelEnd[i] = dataFormatter.format(geometry.labelValue[i], buffer, labelStart[i]);
+            if ((i == ClinometerGeometry.LABEL_ANGLE_Z) && clinometerActivity.isDeltaAngle() && (buffer[labelStart[i]] != '-'))
+                buffer[--labelStart[i]] = '+';
+            length = labelEnd[i];
         }
+        return length;
+    }
 
-        // Dashed line drawn as Array of Lines
-        // because DashPathEffect is not supported by some devices
-
-        j  = max_xy * 0.011f;
-        ll = max_xy * 0.15625f;
-        ls = max_xy * 0.015625f;
-
-        dash[0] = xc;
-        dash[1] = yc;
-        dash[2] = dash[0] - ll;
-        dash[3] = yc;
-
-        dash[4] = dash[2] - j;
-        dash[5] = yc;
-        dash[6] = dash[4] - ls;
-        dash[7] = yc;
-
-        dash[8] = dash[6] - j;
-        dash[9] = yc;
-        dash[10] = dash[8] - ll;
-        dash[11] = yc;
-
-        dash[12] = dash[10] - j;
-        dash[13] = yc;
-        dash[14] = dash[12] - ls;
-        dash[15] = yc;
-
-        dash[16] = dash[14] - j;
-        dash[17] = yc;
-        dash[18] = xc - (float) diag2c;
-        dash[19] = yc;
-
-
-        dashCameraLength = max_xy / (float)(DASH_NUMBER * 8);
-        //Log.w("myApp", "[#] ClinometerView - dashCameraLength = " + dashCameraLength);
-        for (i = 0; i < DASH_NUMBER * 4; i = i + 4) {
-            dashCamera[i] = xc - (dashCameraLength * i);
-            dashCamera[i + 1] = yc;
-            dashCamera[i + 2] = xc - (dashCameraLength * i + dashCameraLength * 2);
-            dashCamera[i + 3] = yc;
-            //Log.w("myApp", "[#] ClinometerView - dashCamera[" + i + "] = " + dashCamera[i] + ", " + dashCamera[i+1]);
+
+    /**
+     * Invalidates the View only if the new state of the Clinometer changes something visible.
+     * The positions are quantized to the pixel: the translations with the scale of the circles,
+     * the rotations with the displacement they produce at the corners of the screen.
+     * The labels are compared as formatted texts.
+     */
+    public void invalidateIfChanged() {
+        if (geometry.x == 0) {
+            // Not laid out yet
+            invalidate();
+            return;
+        }
+        readState();
+
+        float pxPerDegree = geometry.r1 / ClinometerGeometry.R1_VALUE;
+        float pxPerDegreeOfRotation = (float) (geometry.diag2c * Math.PI / 180);
+        state[0] = Math.round(geometry.xs);
+        state[1] = Math.round(geometry.ys);
+        state[2] = Math.round((90 - angleXYZ) * pxPerDegree);          // The Spirit level Horizon
+        state[3] = Math.round(angleXY * pxPerDegreeOfRotation);         // The Horizon, the max gradient and the Arcs
+        state[4] = Math.round(refAxis * pxPerDegreeOfRotation);         // The Axes and the Arcs
+        state[5] = Math.round(refbgAxis * pxPerDegreeOfRotation);       // The Background Lines
+        state[6] = Math.round(angleTextLabels * pxPerDegreeOfRotation); // The rotation of the Labels
+        state[7] = Math.round(displayRotation);
+        state[8] = isFlat ? 1 : 0;
+        state[9] = clinometerActivity.isInCameraMode() ? 1 : 0;
+        state[10] = clinometerActivity.isDeltaAngle() ? 1 : 0;
+        state[11] = clinometerApplication.getPrefUM();
+        int labelsLength = formatLabels(labels);
+
+        boolean isChanged = labelsLength != drawnLabelsLength;
+        for (i = 0; (i < labelsLength) && !isChanged; i++) isChanged = labels[i] != drawnLabels[i];
+        for (i = 0; (i < STATE_SIZE) && !isChanged; i++) isChanged = state[i] != drawnState[i];
+        if (!isChanged) return;
+
+        System.arraycopy(state, 0, drawnState, 0, STATE_SIZE);
+        System.arraycopy(labels, 0, drawnLabels, 0, labelsLength);
+        drawnLabelsLength = labelsLength;
+        invalidate();
+    }
+
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        //super.onDraw(canvas);
+
+        // The geometry and the labels are already updated by invalidateIfChanged(),
+        // unless the View has just been laid out
+        if (!isGeometryUpdated) {
+            readState();
+            drawnLabelsLength = formatLabels(drawnLabels);
         }
 
         // For angle starting from reference axis
 //        angle2Start = refAxis;
 //        angle2Extension = - 180 + angle1Extension;
 
+        int xc = geometry.xc;
+        int yc = geometry.yc;
+
         // -----------------------------------------------------------------------------------------
         // --------[ BACKGROUND ]-------------------------------------------------------------------
 
@@ -371,37 +473,25 @@ public class ClinometerView extends View {
 //        if (!svActivity.isCameraActive)
 //            canvas.drawCircle(xc, yc, (int) Math.sqrt(xc*xc + yc*yc), paint_bg);
 
+        if (isBackgroundDrawn && !clinometerActivity.isInCameraMode()) backgroundRenderer.draw(canvas, refbgAxis);
+
         // --------[ BACKGROUND OF SPIRIT LEVEL HORIZON ]-------------------------------------------
 
         canvas.save();
-        canvas.rotate(angleXY + 90, xc, yc);
-        //canvas.translate(0, (int) ((90 - Math.toDegrees(angleXYZ)) * r1 / r1_value));
-        canvas.drawRect((int) (xc - diag2c), yc + (int) ((90 - angleXYZ) * r1 / r1_value),
-                (int)(xc + diag2c), (int)(yc + diag2c), paint_bg_horizon);
+        canvas.rotate(geometry.horizonRotation, xc, yc);
+        canvas.drawRect(geometry.horizonRect[0], geometry.horizonRect[1],
+                geometry.horizonRect[2], geometry.horizonRect[3], paint_bg_horizon);
         canvas.restore();
 
         // --------[ BACKGROUND LINES ]-------------------------------------------------------------
 
 
         if (clinometerActivity.isInCameraMode()) {
-            canvas.save();
-            for (i = 0; i < 4; i++) {
-                canvas.drawLines(dashCamera, 0, DASH_NUMBER * 4, paint_WhiteDashCamera);
-                canvas.save();
-                canvas.translate(- dashCameraLength * 2, 0);
-                canvas.drawLines(dashCamera, 0, DASH_NUMBER * 4, paint_BlackDashCamera);
-                canvas.restore();
-                if (i < 3) canvas.rotate(90, xc, yc);
-            }
-            canvas.restore();
+            drawLayer(canvas, LAYER_CAMERA_LINES);
         } else {
             canvas.save();
             canvas.rotate(refbgAxis, xc, yc);
-            for (angle = 0; angle < 360; angle += 30) {
-                if (angle % 90 == 0) canvas.drawLines(dash, 0, 20, paint_LTGray);
-                else canvas.drawLine(xc + (int) (diag2c), yc, xc + (int) (r1), yc, paint_LTGray);
-                canvas.rotate(30, xc, yc);
-            }
+            drawLayer(canvas, LAYER_BACKGROUND_LINES);
             canvas.restore();
         }
 
@@ -410,66 +500,30 @@ public class ClinometerView extends View {
         // Horizontal and Vertical Axis
         canvas.save();
         canvas.rotate(refAxis, xc, yc);
-        canvas.drawLines(dash, 0, 20, paint_Black15);
-        canvas.rotate(180, xc, yc);
-        canvas.drawLines(dash, 0, 20, paint_Black15);
+        drawLayer(canvas, LAYER_AXES_CONTRAST);
         canvas.restore();
         // Cross
-        canvas.drawLine(0, ys, x, ys, paint_Black30);
-        canvas.drawLine(xs, 0, xs, y, paint_Black30);
+        canvas.drawLines(geometry.cross, paint_Black30);
         // Bubble
-        canvas.drawCircle(xs, ys, r1 / 4, paint_Black00);
+        canvas.drawCircle(geometry.xs, geometry.ys, geometry.bubbleRadius, paint_Black00);
         // Angle Arcs
-        r = (2.0f + angle1OffsetFromR) * r1;
-        arcRectF.left = xc - r;           // The RectF for the Arc
-        arcRectF.right = xc + r;
-        arcRectF.top = yc - r;
-        arcRectF.bottom = yc + r;
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle1Extension) <= 90))
-            canvas.drawArc(arcRectF, angle1Start + 2, angle1Extension - 4, false, paint_Black15);
-        r = (2.0f + angle2OffsetFromR) * r1;
-        arcRectF.left = xc - r;           // The RectF for the Arc
-        arcRectF.right = xc + r;
-        arcRectF.top = yc - r;
-        arcRectF.bottom = yc + r;
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle2Extension) <= 90))
-            canvas.drawArc(arcRectF, angle2Start - 2, angle2Extension + 4, false, paint_Black15);
+        drawArcs(canvas, paint_Black15);
         // Spirit level Horizon
-        if (!isFlat) {
-            canvas.save();
-            canvas.rotate(angleXY + 90, xc, yc);
-            //canvas.translate(0, (int) ((90 - angleXYZ) * r1 / r1_value));
-            canvas.drawLine((int) (xc - diag2c), yc + (int) ((90 - angleXYZ) * r1 / r1_value),
-                    (int) (xc + diag2c), yc + (int) ((90 - angleXYZ) * r1 / r1_value), paint_Black30);
-            canvas.restore();
-        }
+        if (!isFlat) canvas.drawLines(geometry.spiritHorizon, paint_Black30);
         // Horizon and max gradient
-        canvas.save();
-        canvas.rotate((float) Math.toDegrees(rot_angle_rad), xc, yc);
-        //canvas.drawLine(xc - (xc + yc), yc, xc + (xc + yc), yc, paint_LTGray);    // Max Gradient
-        canvas.drawLine(xc - min_xy / 2 + r1 / 2, yc, (float) -diag2c, yc, paint_Black15);                 // Max Gradient
-        //canvas.drawLine(xc - min_xy/2 + r1, yc, xc, yc, paint_LTGray);                 // Max Gradient
-        canvas.rotate(90, xc, yc);
-        canvas.drawLine(xc - (xc + yc), yc, xc + (xc + yc), yc, paint_Black15);       // Horizon
-        canvas.restore();
+        canvas.drawLines(geometry.gradientAndHorizon, paint_Black15);
 
         // --------[ HORIZONTAL AND VERTICAL AXIS ]----------------------------------------------------------------------
 
         canvas.save();
         canvas.rotate(refAxis, xc, yc);
-        canvas.drawLines(dash, 0, 20, paint_White);
-        canvas.rotate(180, xc, yc);
-        canvas.drawLines(dash, 0, 20, paint_White);
+        drawLayer(canvas, LAYER_AXES);
         canvas.restore();
 
         // --------[ BACKGROUND CIRCLES ]-----------------------------------------------------------
 
-        if (!clinometerActivity.isInCameraMode()) {
-            for (i = 1; i <= ncircles; i = i + 1)
-                canvas.drawCircle(xc, yc, Math.round(r1 * i), paint_LTGray);
-        } else canvas.drawCircle(xc, yc, Math.round(r1), paint_LTGray);
-        //for (int i = 2; i <= ncircles*2; i=i+2) canvas.drawCircle(xc, yc, Math.round(r1*i), paint);
-        //for (int i = 3; i <= ncircles*2; i=i+2) canvas.drawCircle(xc, yc, Math.round(r1*i), paint_secondary);
+        if (!clinometerActivity.isInCameraMode()) drawLayer(canvas, LAYER_CIRCLES);
+        else canvas.drawCircle(xc, yc, Math.round(geometry.r1), paint_LTGray);
 
 
 
@@ -477,172 +531,55 @@ public class ClinometerView extends View {
         // --------[ SPIRIT LEVEL ]-----------------------------------------------------------------
 
         // Horizon and max gradient
-        canvas.save();
-        canvas.rotate((float) Math.toDegrees(rot_angle_rad), xc, yc);
-        //canvas.drawLine(xc - (xc + yc), yc, xc + (xc + yc), yc, paint_LTGray);    // Max Gradient
-        canvas.drawLine(xc - min_xy/2 + r1/2, yc, (float)-diag2c, yc, paint_White);                 // Max Gradient
-        //canvas.drawLine(xc - min_xy/2 + r1, yc, xc, yc, paint_LTGray);                 // Max Gradient
-        canvas.rotate(90, xc, yc);
-        canvas.drawLine(xc - (xc + yc), yc, xc + (xc + yc), yc, paint_White);       // Horizon
-        canvas.restore();
-
+        canvas.drawLines(geometry.gradientAndHorizon, paint_White);
         // Cross
-        canvas.drawLine(0, ys, x, ys, paint_Yellow_Spirit);
-        canvas.drawLine(xs, 0, xs, y, paint_Yellow_Spirit);
-
+        canvas.drawLines(geometry.cross, paint_Yellow_Spirit);
         // White angles
-
-        r = (2.0f + angle1OffsetFromR) * r1;
-        arcRectF.left = xc - r;           // The RectF for the Arc
-        arcRectF.right = xc + r;
-        arcRectF.top = yc - r;
-        arcRectF.bottom = yc + r;
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle1Extension) <= 90))
-            canvas.drawArc(arcRectF, angle1Start + 2, angle1Extension - 4, false, paint_White);
-
-        r = (2.0f + angle2OffsetFromR) * r1;
-        arcRectF.left = xc - r;           // The RectF for the Arc
-        arcRectF.right = xc + r;
-        arcRectF.top = yc - r;
-        arcRectF.bottom = yc + r;
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle2Extension) <= 90))
-            canvas.drawArc(arcRectF, angle2Start - 2, angle2Extension + 4, false, paint_White);
-
+        drawArcs(canvas, paint_White);
         // Bubble Circle
-        canvas.drawCircle(xs, ys,r1/4, paint_Yellow_Spirit);
-
+        canvas.drawCircle(geometry.xs, geometry.ys, geometry.bubbleRadius, paint_Yellow_Spirit);
         // Spirit level Horizon
-        if (!isFlat) {
-            canvas.save();
-            canvas.rotate(angleXY + 90, xc, yc);
-            //canvas.translate(0, (int) ((90 - angleXYZ) * r1 / r1_value));
-            canvas.drawLine((int) (xc - diag2c), yc + (int) ((90 - angleXYZ) * r1 / r1_value),
-                    (int)(xc + diag2c), yc + (int) ((90 - angleXYZ) * r1 / r1_value), paint_Yellow_Spirit);
-            canvas.restore();
-
-            //canvas.drawLine(x_horizon[0], y_horizon[0], x_horizon[1], y_horizon[1], paint_Yellow_Spirit);
-            //canvas.drawCircle(xs_vertical, ys_vertical,r1/4, paint_Yellow_Spirit);
-        }
+        if (!isFlat) canvas.drawLines(geometry.spiritHorizon, paint_Yellow_Spirit);
 
 
 
         // -----------------------------------------------------------------------------------------
         // --------[ TEXT LABELS ]------------------------------------------------------------------
 
-        // Angle Z
-        canvas.save();
-        canvas.rotate( (float) Math.toDegrees(rot_angle_rad) + 180, xc, yc);
-        formattedAngle = dataFormatter.format(90 - (angles[2] + clinometerActivity.getRefAngleXYZ()));
-        drawTextWithShadow(canvas, (clinometerActivity.isDeltaAngle() && !formattedAngle.startsWith("-") ? "+" + formattedAngle : formattedAngle),
-                (int) (min_xy - (r1)), yc,
-                TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
-                (angleTextLabels - (float) Math.toDegrees(rot_angle_rad) - 180) , paint_WhiteText);
-        canvas.restore();
-
-        // Angle 0 + 1
-        if (displayRotation == 0f) {
-            formattedAngle = dataFormatter.format(angles[0]);
-            drawTextWithShadow(canvas, formattedAngle, (int)xs - textOffsetPx, y - textOffsetPx,
-                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_0, paint_Yellow_Spirit);
-            formattedAngle = dataFormatter.format(angles[1]);
-            drawTextWithShadow(canvas, formattedAngle, textOffsetPx, (int)ys - textOffsetPx,
-                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_0, paint_Yellow_Spirit);
-        }
-        if (displayRotation == 90f) {
-            formattedAngle = dataFormatter.format(angles[0]);
-            drawTextWithShadow(canvas, formattedAngle, (int)xs + textOffsetPx, textOffsetPx,
-                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_90, paint_Yellow_Spirit);
-            formattedAngle = dataFormatter.format(angles[1]);
-            drawTextWithShadow(canvas, formattedAngle, textOffsetPx, (int)ys - textOffsetPx,
-                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_90, paint_Yellow_Spirit);
-        }
-        if (displayRotation == 180f) {
-            formattedAngle = dataFormatter.format(angles[0]);
-            drawTextWithShadow(canvas, formattedAngle, (int)xs + textOffsetPx, textOffsetPx,
-                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_180, paint_Yellow_Spirit);
-            formattedAngle = dataFormatter.format(angles[1]);
-            drawTextWithShadow(canvas, formattedAngle, x - textOffsetPx, (int)ys + textOffsetPx,
-                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_180, paint_Yellow_Spirit);
-        }
-        if (displayRotation == 270f) {
-            formattedAngle = dataFormatter.format(angles[0]);
-            drawTextWithShadow(canvas, formattedAngle, (int)xs - textOffsetPx, y - textOffsetPx,
-                    TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_270, paint_Yellow_Spirit);
-            formattedAngle = dataFormatter.format(angles[1]);
-            drawTextWithShadow(canvas, formattedAngle, x - textOffsetPx, (int)ys + textOffsetPx,
-                    TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_270, paint_Yellow_Spirit);
+        // The texts formatted and compared by invalidateIfChanged()
+        for (i = 0; i < ClinometerGeometry.LABELS_NUMBER; i++) {
+            if (!geometry.isLabelVisible[i]) continue;
+            drawTextWithShadow(canvas, drawnLabels, labelStart[i], labelEnd[i],
+                    geometry.labelAnchor[i * 2], geometry.labelAnchor[i * 2 + 1],
+                    geometry.labelHorizontalAlignment[i], geometry.labelVerticalAlignment[i], geometry.labelRotation[i],
+                    ((i == ClinometerGeometry.LABEL_ANGLE_Z) || (i >= ClinometerGeometry.LABEL_ARC_1)) ? paint_WhiteText : paint_Yellow_Spirit);
         }
+    }
 
-        // Angle 2
-        if (!isFlat) {
-            if ((Math.abs(angles[2]) > ANGLE2LABELSWITCH_THRESHOLD)
-                    && (Math.abs(angles[0]) > ANGLE2LABELSWITCH_THRESHOLD)
-                    && (Math.abs(angles[1]) > ANGLE2LABELSWITCH_THRESHOLD)) {
-                // Switch evaluation
-                isAngle2LabelOnLeft = false;
-                if (((displayRotation == 0f) || (displayRotation == 180f)) &&
-                        (angles[2] * angles[0] < 0)) isAngle2LabelOnLeft = true;
-                if (((displayRotation == 90f) || (displayRotation == 270f)) &&
-                        (angles[2] * angles[1] < 0)) isAngle2LabelOnLeft = true;
-                if ((displayRotation == 180f) || (displayRotation == 270f)) isAngle2LabelOnLeft = !isAngle2LabelOnLeft;
-            }
 
-            canvas.save();
-
-            if (displayRotation == 0f) {
-                canvas.rotate(angles[0], xc, yc);
-            }
-            if (displayRotation == 90f) {
-                canvas.rotate(- 270 - angles[1], xc, yc);
-            }
-            if (displayRotation == 180f) {
-                canvas.rotate(180 - angles[0], xc, yc);
-            }
-            if (displayRotation == 270f) {
-                canvas.rotate(+ 270 + angles[1], xc, yc);
-            }
-
-            //canvas.drawLine(xc-(xc+yc), yc, xc+(xc+yc), yc, paint_White);
-            canvas.translate(0, angles[2] * r1 / r1_value);
-
-            if (isAngle2LabelOnLeft) {
-                // SX
-                formattedAngle = dataFormatter.format(angles[2]);
-                drawTextWithShadow(canvas, formattedAngle, textOffsetPx, yc - textOffsetPx,
-                        TEXT_ALIGNMENT_LEFT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_0, paint_Yellow_Spirit);
-            } else {
-                // DX
-                formattedAngle = dataFormatter.format(angles[2]);
-                drawTextWithShadow(canvas, formattedAngle, x - textOffsetPx , yc - textOffsetPx,
-                        TEXT_ALIGNMENT_RIGHT, TEXT_ALIGNMENT_BOTTOM, TEXT_ROTATION_0, paint_Yellow_Spirit);
-            }
-            canvas.restore();
+    /**
+     * Draws the visible angle arcs.
+     *
+     * @param canvas The Canvas
+     * @param paint The Paint of the pass
+     */
+    private void drawArcs(Canvas canvas, Paint paint) {
+        for (int arc = 0; arc < 2; arc++) {
+            if (!geometry.isArcVisible[arc]) continue;
+            float r = geometry.arcRadius[arc];
+            arcRectF.left = geometry.xc - r;           // The RectF for the Arc
+            arcRectF.right = geometry.xc + r;
+            arcRectF.top = geometry.yc - r;
+            arcRectF.bottom = geometry.yc + r;
+            canvas.drawArc(arcRectF, geometry.arcStart[arc], geometry.arcSweep[arc], false, paint);
         }
+    }
 
-        // --------[ WHITE LABELS ]-----------------------------------------------------------------
 
-        canvas.save();
-        canvas.rotate( angle1Start + angle1Extension /2, xc, yc);
-        formattedAngle = dataFormatter.format(Math.abs(angle1Extension));
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle1Extension) <= 90))
-            drawTextWithShadow(canvas, formattedAngle,
-                (int) (xc + (r1 * (2.1f + angle1OffsetFromR)) + (textOffsetPx * 1.5) + paint_White.measureText("100.0°") / 2), yc,
-                TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
-                -angle1Extension /2 - refAxis + angleTextLabels , paint_WhiteText);
-        canvas.rotate( 90 , xc, yc);
-        formattedAngle = dataFormatter.format(Math.abs(angle2Extension));
-        if ((clinometerApplication.getPrefUM() < DataFormatter.UM_PERCENT) || (Math.abs(angle2Extension) <= 90))
-            drawTextWithShadow(canvas, formattedAngle,
-                (int) (xc + (r1 * (2.1f + angle2OffsetFromR)) + (textOffsetPx * 1.5) + paint_White.measureText("100.0°") / 2), yc,
-                TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
-                -angle1Extension /2 - 90 - refAxis + angleTextLabels, paint_WhiteText);
-        // For angle starting from reference axis
-//        canvas.rotate( -90 , xc, yc);
-//        drawTextWithShadow(canvas, String.format("%1.1f°", Math.abs(angle2Extension)),
-//                (int) (xc + (r1 * 2.1) + 30 + paint_White.measureText("100.0°") / 2), yc,
-//                TEXT_ALIGNMENT_CENTER, TEXT_ALIGNMENT_CENTER,
-//                -angle1Extension /2 + 90 - refAxis + svActivity.angleTextLabels, paint_WhiteText);
-        canvas.restore();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        labelSpriteCache.clear();
     }
 
 
@@ -653,7 +590,9 @@ public class ClinometerView extends View {
 //                Log.d("SpiritLevel", "Center Screen " + xc + " " + yc);
 //                Log.d("SpiritLevel", String.format("TouchEvent %1.0f %1.0f", event.getX(), event.getY()));
 
-                if (Math.sqrt(((event.getX() - xc) * (event.getX() - xc) + (event.getY() - yc) * (event.getY() - yc))) <= r1) {
+                int xc = geometry.xc;
+                int yc = geometry.yc;
+                if (Math.sqrt(((event.getX() - xc) * (event.getX() - xc) + (event.getY() - yc) * (event.getY() - yc))) <= geometry.r1) {
                     // Click the center of the screen => Toggle Locking
                     clinometerActivity.toggleLocking();
                     Log.w("myApp", "[#] ClinometerView - Toggle Locking");
@@ -682,17 +621,16 @@ public class ClinometerView extends View {
 
     private int tHeight = 0;
     private int tWidth = 0;
+    private LabelSpriteCache.Sprite sprite;
 
-    private void drawTextWithShadow(Canvas canvas, String text, int x, int y, float horizontal_alignment, float vertical_alignment, float rotation, Paint paint) {
-        paint_Yellow_Spirit.getTextBounds(text, 0, text.length(), textbounds);
-        tHeight = textbounds.height();
-        tWidth = textbounds.width();
+    private void drawTextWithShadow(Canvas canvas, char[] text, int start, int end, float x, float y, float horizontal_alignment, float vertical_alignment, float rotation, Paint paint) {
+        sprite = labelSpriteCache.get(text, start, end, paint);
+        tHeight = sprite.textHeight;
+        tWidth = sprite.textWidth;
 
         canvas.save();
         canvas.rotate(rotation, x, y);
-        paint_ShadowText.setAlpha(paint.getAlpha());
-        canvas.drawText(text, x-tWidth*horizontal_alignment, y+tHeight*vertical_alignment, paint_ShadowText);
-        canvas.drawText(text, x-tWidth*horizontal_alignment, y+tHeight*vertical_alignment, paint);
+        canvas.drawBitmap(sprite.bitmap, x-tWidth*horizontal_alignment + sprite.offsetX, y+tHeight*vertical_alignment + sprite.offsetY, paint_Sprite);
         canvas.restore();
         //canvas.drawRoundRect(rect,4, 4, paint_spirit);
     }
@@ -0,0 +1,134 @@
+/*
+ * CriticallyDampedSpring - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * A critically damped spring that moves an angle towards its target value.
+ * The spring is solved in closed form: its value is computed directly from the time elapsed
+ * since the last change of the target, so it doesn't depend on the frame rate or on dropped frames.
+ * It doesn't depend on Android, the times are given by the caller (in nanoseconds).
+ *
+ * With the error e = value - target, the motion is
+ *     e(t) = (e0 + (v0 + w * e0) * t) * exp(-w * t)
+ * where e0 and v0 are the error and the velocity when the target was set.
+ */
+public class CriticallyDampedSpring {
+
+    // The angular frequency that best fits the step response of the PID (Kp = 0.3, Kd = 0.03, T = 16 ms)
+    // previously used to animate the reference axes: 0.8° RMS on a 90° step
+    public static final float DEFAULT_ANGULAR_FREQUENCY = 27.5f;
+
+    private static final double VALUE_TOLERANCE = 0.001;       // The spring is at rest within 0.001°
+    private static final double VELOCITY_TOLERANCE = 0.0625;    // and below 0.0625°/s (0.001° in 16 ms)
+
+    private final double w;             // The angular frequency (in rad/s)
+
+    private double r = 0;               // The target value
+    private double x0 = 0;              // The value when the target has been set
+    private double v0 = 0;              // The velocity when the target has been set
+    private long t0 = 0;                // The time when the target has been set (in nanoseconds)
+
+
+    /**
+     * Creates a new spring at rest on the given value.
+     *
+     * @param initialValue The initial value
+     * @param angularFrequency The angular frequency of the spring (in rad/s)
+     */
+    public CriticallyDampedSpring(float initialValue, float angularFrequency) {
+        w = angularFrequency;
+        setValue(initialValue);
+    }
+
+
+    private double elapsedSeconds(long timeNanos) {
+        return Math.max(timeNanos - t0, 0) * 1E-9;
+    }
+
+
+    private double error(double t) {
+        return ((x0 - r) + (v0 + w * (x0 - r)) * t) * Math.exp(-w * t);
+    }
+
+
+    private double velocity(double t) {
+        return (v0 - w * (v0 + w * (x0 - r)) * t) * Math.exp(-w * t);
+    }
+
+
+    /**
+     * Changes the final value of the spring to a new value.
+     * The spring takes the shortest way around the circle.
+     *
+     * @param setPoint The new target value
+     * @param timeNanos The time of the change
+     */
+    public void setTargetValue(float setPoint, long timeNanos) {
+        double t = elapsedSeconds(timeNanos);
+        double x = r + error(t);
+        v0 = velocity(t);
+        x0 = x;
+        t0 = timeNanos;
+
+        double deltar = r - setPoint;
+        if (Math.abs(deltar) > 180.0) {
+            if (deltar < 0.0) x0 += 360.0;
+            else x0 -= 360.0;
+        }
+        r = setPoint;
+    }
+
+
+    /**
+     * Returns the value of the spring at the given time.
+     *
+     * @param timeNanos The time
+     * @return The value, between -360 and 360
+     */
+    public float getValue(long timeNanos) {
+        return (float) (r + error(elapsedSeconds(timeNanos))) % 360.0f;
+    }
+
+
+    /**
+     * Returns true if the spring has not reached the target at the given time.
+     *
+     * @param timeNanos The time
+     * @return true if the value is still changing
+     */
+    public boolean isAnimating(long timeNanos) {
+        double t = elapsedSeconds(timeNanos);
+        return (Math.abs(error(t)) > VALUE_TOLERANCE) || (Math.abs(velocity(t)) > VELOCITY_TOLERANCE);
+    }
+
+
+    /**
+     * Moves instantly the spring to the given value, at rest.
+     *
+     * @param value The new value
+     */
+    public void setValue(float value) {
+        r = value;
+        x0 = value;
+        v0 = 0;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * FastTrig - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * Fast trigonometric functions in single precision, used to convert the gravity
+ * vector into angles.
+ * The arctangent is evaluated with the minimax polynomial 4.4.49 of Abramowitz and Stegun,
+ * whose error is below 2E-8 rad in [-1, 1]; in single precision the total error is bounded
+ * by the float rounding, below 4E-7 rad (2.3E-5 degrees), well below the 0.1 degrees
+ * shown by the Clinometer.
+ * All the inverse functions needed by the Clinometer (asin, acos, and the angle on the plane)
+ * are computed with atan2, which is accurate on the whole sphere, also near the poles
+ * where asin and acos lose precision.
+ */
+public class FastTrig {
+
+    private static final float PI = (float) Math.PI;
+    private static final float HALF_PI = (float) (Math.PI / 2);
+    public static final float RADIANS_TO_DEGREES = (float) (180 / Math.PI);
+
+    // The coefficients of the polynomial 4.4.49 (Abramowitz and Stegun)
+    private static final float A2  = -0.3333314528f;
+    private static final float A4  =  0.1999355085f;
+    private static final float A6  = -0.1420889944f;
+    private static final float A8  =  0.1065626393f;
+    private static final float A10 = -0.0752896400f;
+    private static final float A12 =  0.0429096138f;
+    private static final float A14 = -0.0161657367f;
+    private static final float A16 =  0.0028662257f;
+
+
+    private FastTrig() {
+    }
+
+
+    /**
+     * Returns the arctangent of t, for t in [-1, 1].
+     */
+    private static float atanUnit(float t) {
+        float t2 = t * t;
+        return t * (1 + t2 * (A2 + t2 * (A4 + t2 * (A6 + t2 * (A8 + t2 * (A10 + t2 * (A12 + t2 * (A14 + t2 * A16))))))));
+    }
+
+
+    /**
+     * Returns the angle (in radians) of the point (x, y), in the range [-PI, PI].
+     * It behaves as Math.atan2, except that atan2(0, 0) is always 0.
+     */
+    public static float atan2(float y, float x) {
+        float ax = Math.abs(x);
+        float ay = Math.abs(y);
+        if ((ax == 0) && (ay == 0)) return 0;
+
+        float r;
+        if (ay <= ax) r = atanUnit(ay / ax);
+        else r = HALF_PI - atanUnit(ax / ay);
+        if (x < 0) r = PI - r;
+        return (y < 0) ? -r : r;
+    }
+
+
+    /**
+     * Returns the angle (in degrees) of the point (x, y), in the range [-180, 180].
+     */
+    public static float atan2Degrees(float y, float x) {
+        return atan2(y, x) * RADIANS_TO_DEGREES;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * FrameScheduler - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Paces the updates of the UI with the vsync of the display.
+ * Any thread can request a frame; the requests are coalesced, and the listener is called
+ * on the UI thread at most once per vsync, following the refresh rate of the panel.
+ * When no frame is requested, the scheduler stays idle and nothing is rendered.
+ *
+ * The scheduler also drives the registered Animations: they are stepped together at each frame,
+ * and the frames are requested until all of them have converged.
+ */
+public class FrameScheduler implements Choreographer.FrameCallback {
+
+    /**
+     * The listener called on the UI thread at each scheduled frame.
+     */
+    public interface OnFrameListener {
+        void onFrame(long frameTimeNanos);
+    }
+
+    /**
+     * An animated value, stepped on the UI thread at each frame.
+     */
+    public interface Animation {
+        /**
+         * Advances the Animation to the time of the frame.
+         *
+         * @param frameTimeNanos The time of the frame, in the System.nanoTime() time base
+         * @return true if the Animation needs more frames, false if it has converged
+         */
+        boolean doAnimationFrame(long frameTimeNanos);
+    }
+
+    private final OnFrameListener onFrameListener;
+    private final Choreographer choreographer;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean isFrameRequested = new AtomicBoolean(false);
+    private final ArrayList<Animation> animations = new ArrayList<>();
+    private volatile boolean isRunning = false;
+
+    private final Runnable postFrameCallbackRunnable = new Runnable() {
+        @Override
+        public void run() {
+            choreographer.postFrameCallback(FrameScheduler.this);
+        }
+    };
+
+
+    /**
+     * Creates a new FrameScheduler. It must be created on the UI thread.
+     *
+     * @param onFrameListener The listener that renders the frames
+     */
+    public FrameScheduler(OnFrameListener onFrameListener) {
+        this.onFrameListener = onFrameListener;
+        choreographer = Choreographer.getInstance();
+    }
+
+
+    /**
+     * Registers an Animation, that will be stepped at each frame.
+     * To be called on the UI thread. The Animation must request a frame when its target changes.
+     *
+     * @param animation The Animation to add
+     */
+    public void addAnimation(Animation animation) {
+        animations.add(animation);
+    }
+
+
+    /**
+     * Starts the scheduler and requests the first frame.
+     * To be called on the UI thread.
+     */
+    public void start() {
+        isRunning = true;
+        requestFrame();
+    }
+
+
+    /**
+     * Stops the scheduler and cancels the pending frame.
+     * To be called on the UI thread.
+     */
+    public void stop() {
+        isRunning = false;
+        handler.removeCallbacks(postFrameCallbackRunnable);
+        choreographer.removeFrameCallback(this);
+        isFrameRequested.set(false);
+    }
+
+
+    /**
+     * Requests a frame at the next vsync.
+     * It can be called from any thread; more requests before the next vsync
+     * produce a single frame.
+     */
+    public void requestFrame() {
+        if (!isRunning) return;
+        if (isFrameRequested.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) choreographer.postFrameCallback(this);
+            else handler.post(postFrameCallbackRunnable);
+        }
+    }
+
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameRequested.set(false);
+        if (!isRunning) return;
+
+        boolean isAnimating = false;
+        for (int i = 0; i < animations.size(); i++) {
+            if (animations.get(i).doAnimationFrame(frameTimeNanos)) isAnimating = true;
+        }
+        onFrameListener.onFrame(frameTimeNanos);
+
+        // Keep rendering until all the Animations are completed
+        if (isAnimating) requestFrame();
+    }
+}
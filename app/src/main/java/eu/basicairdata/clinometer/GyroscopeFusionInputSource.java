@@ -0,0 +1,67 @@
+/*
+ * GyroscopeFusionInputSource - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+
+/**
+ * The Input Source that fuses the gyroscope and the accelerometers in the InclinationEngine.
+ * The gyroscope gives the fast response, the accelerometers correct its drift.
+ */
+public class GyroscopeFusionInputSource extends AccelerometerInputSource {
+
+    private final static int GYROSCOPE_UPDATE_INTERVAL_MICROS = 5000;
+
+
+    @Override
+    public boolean isAvailable(SensorManager sensorManager) {
+        return super.isAvailable(sensorManager)
+                && (sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE) != null);
+    }
+
+
+    @Override
+    public void registerListener(SensorManager sensorManager, SensorEventListener listener, Handler handler) {
+        super.registerListener(sensorManager, listener, handler);
+        sensorManager.registerListener(listener, sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE), GYROSCOPE_UPDATE_INTERVAL_MICROS, handler);
+    }
+
+
+    @Override
+    public void setup(InclinationEngine inclinationEngine) {
+        inclinationEngine.setGyroscopeFusion(true);
+    }
+
+
+    @Override
+    public boolean process(SensorEvent event, InclinationEngine inclinationEngine) {
+        if (event.sensor.getType() == Sensor.TYPE_GYROSCOPE) {
+            inclinationEngine.updateGyroscope(event.timestamp, event.values[0], event.values[1], event.values[2]);
+            return true;
+        }
+        return super.process(event, inclinationEngine);
+    }
+}
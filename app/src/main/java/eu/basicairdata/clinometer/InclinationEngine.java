@@ -0,0 +1,458 @@
+/*
+ * InclinationEngine - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * The signal processing of the Clinometer.
+ * It takes the readings of the accelerometer and calculates the filtered gravity vector
+ * and the angles of the device.
+ * The class has no Android dependencies and it doesn't allocate memory while processing
+ * the samples, so it can be run and benchmarked on a plain JVM.
+ */
+public class InclinationEngine {
+
+    public static final float AUTOLOCK_HORIZON_CHECK_THRESHOLD = 5.0f; // The zone of horizon check (+- 5 degrees)
+    private static final float ROTATION_THRESHOLD = 5;                  // The threshold of the boundaries for DisplayRotation (in degrees)
+    private static final int   SIZE_OF_MEANVARIANCE = 1000;             // 10 seconds
+    private static final int   SIZE_OF_AUTOLOCK_WINDOW = 200;           // 2 seconds
+    private static final int   SIZE_OF_MOTION_WINDOW = 50;              // 0.5 seconds
+    private static final float AUTOLOCK_MAX_DRIFT = 0.25f;              // The max drift of the last 0.5 s from the 2 s mean (relative to the tolerance)
+    private static final float STANDARD_GRAVITY = 9.80665f;             // The gravity of the Earth (in m/s^2)
+
+    // The exponential filter of the accelerometers is defined by its time constant, so that it
+    // behaves in the same way at any sampling rate: the weight of a new reading that comes dt
+    // seconds after the previous one is alpha = 1 - exp(-dt / FILTER_TIME_CONSTANT).
+    // The time constant matches the former fixed weight of 0.03 at the nominal rate of 100 Hz.
+    private static final double FILTER_TIME_CONSTANT = -0.01 / Math.log(1 - 0.03);  // ~0.328 s
+    private static final double FILTER_DEVIATION_BOOST = 0.1;          // Speed-up of the filter for each m/s^2 of deviation from the mean
+    private static final double FILTER_MAX_DT = 1.0;                   // The maximum time between two readings (in seconds)
+    private float alpha0 = 0;                                          // The weights of the last reading
+    private float alpha1 = 0;
+    private float alpha2 = 0;
+
+    // With the Gyroscope Fusion the gravity vector is rotated by the gyroscope readings, and
+    // it is slowly pulled towards the accelerometer readings in order to correct the drift.
+    // The residual bias of the gyroscope is estimated by the integral of the correction.
+    private static final double FUSION_TIME_CONSTANT = 0.5;            // The time constant of the accelerometer correction (in seconds)
+    private static final float FUSION_INTEGRAL_GAIN = 0.1f;            // The gain of the gyroscope bias estimation (1/s^2)
+    private boolean isGyroscopeFusionEnabled = false;
+    private long gyroscopeTimestamp = 0;                               // The timestamp of the last gyroscope reading (in nanoseconds)
+    private final float[] gyroscopeBias = {0, 0, 0};                   // The estimated correction of the gyroscope (in rad/s)
+
+    private CalibrationModel calibrationModel = CalibrationModel.IDENTITY;
+
+    private final float[] gravity              = {0, 0, 0};    // The (filtered) current calibrated gravity vector
+    private final float[] acceleration         = {0, 0, 0};    // The current calibrated reading of the accelerometers
+    private final float[] angularVelocity      = {0, 0, 0};    // The current reading of the gyroscope, in the calibrated frame
+
+    private final float[] angle                = {0, 0, 0};    // The (filtered) current angles (in degrees)
+
+    private float gravityXY = 0;
+    private float gravityXYZ = 0;
+    private float angleXY = 0;                          // The angle on the horizontal plane (in degrees)
+    private float angleXYZ = 0;                         // The angle between XY vector and the vertical (in degrees)
+    private float angleTextLabels = 0;                  // The rotation angle for the text labels
+
+    private boolean isFlat = true;                      // True if the device is oriented flat (for example on a table)
+    private float displayRotation = 0;                  // The rotation angle from the natural position of the device
+
+    private long timestamp = 0;                         // The timestamp of the last sample (in nanoseconds)
+
+    private final MeanVariance3 mvAngle = new MeanVariance3(SIZE_OF_MEANVARIANCE);
+    private final MeanVariance3 mvGravity = new MeanVariance3(16);
+    // The statistics of the windows used by the Auto-Locking, taken from mvAngle
+    private final MeanVariance3.Statistics angleAutoLockStatistics = new MeanVariance3.Statistics();
+    private final MeanVariance3.Statistics angleMotionStatistics = new MeanVariance3.Statistics();
+
+
+    // --------------------------------------------------------------------------------------------------------------------------
+    // --- GETTERS AND SETTERS --------------------------------------------------------------------------------------------------
+    // --------------------------------------------------------------------------------------------------------------------------
+
+
+    public float[] getAngles() {
+        return angle;
+    }
+
+    public float getAngleXY() {
+        return angleXY;
+    }
+
+    public float getAngleXYZ() {
+        return angleXYZ;
+    }
+
+    public float getAngleTextLabels() {
+        return angleTextLabels;
+    }
+
+    public boolean isFlat() {
+        return isFlat;
+    }
+
+    public float getDisplayRotation() {
+        return displayRotation;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns true if the gravity vector is currently estimated using the gyroscope.
+     */
+    public boolean isGyroscopeFusionActive() {
+        return isGyroscopeFusionEnabled && (gyroscopeTimestamp != 0);
+    }
+
+    /**
+     * Enables or disables the Gyroscope Fusion.
+     * When enabled, the readings of the gyroscope must be passed to updateGyroscope().
+     * Until the first gyroscope reading, the engine uses only the accelerometers.
+     */
+    public void setGyroscopeFusion(boolean enabled) {
+        isGyroscopeFusionEnabled = enabled;
+        gyroscopeTimestamp = 0;
+        gyroscopeBias[0] = 0;
+        gyroscopeBias[1] = 0;
+        gyroscopeBias[2] = 0;
+    }
+
+    /**
+     * Returns the statistics of the angles used by the last Auto-Locking check.
+     */
+    public MeanVariance3.Statistics getAngleAutoLockStatistics() {
+        return angleAutoLockStatistics;
+    }
+
+    /**
+     * Returns the mean value of the angle of the given axis over the whole history (10 seconds).
+     */
+    public float getAngleMeanValue(int axis) {
+        return mvAngle.getMeanValue(axis);
+    }
+
+
+    // --------------------------------------------------------------------------------------------------------------------------
+    // --- CLASS METHODS --------------------------------------------------------------------------------------------------------
+    // --------------------------------------------------------------------------------------------------------------------------
+
+
+    /**
+     * Sets the calibration of the accelerometers.
+     * The filtered gravity is kept in the calibrated frame, so the filter restarts
+     * from the next reading.
+     */
+    public void setCalibrationModel(CalibrationModel calibrationModel) {
+        if (this.calibrationModel != calibrationModel) {
+            this.calibrationModel = calibrationModel;
+            gravity[0] = 0;
+            gravity[1] = 0;
+            gravity[2] = 0;
+        }
+    }
+
+
+    /**
+     * Processes a new reading of the accelerometers.
+     *
+     * @param timestamp The timestamp of the reading (in nanoseconds)
+     * @param x The acceleration along the X axis
+     * @param y The acceleration along the Y axis
+     * @param z The acceleration along the Z axis
+     * @return true if the display rotation has been changed by this reading
+     */
+    public boolean update(long timestamp, float x, float y, float z) {
+        // The time elapsed from the previous reading (in seconds)
+        double dt = (this.timestamp == 0) ? 0 : Math.min(Math.max((timestamp - this.timestamp) * 1E-9, 0), FILTER_MAX_DT);
+        this.timestamp = timestamp;
+
+        // Apply Calibration values
+
+        calibrationModel.apply(x, y, z, acceleration);
+
+        // Weighted gravity reads
+        // The filter works in the calibrated frame, where the deviations from mvGravity are measured.
+        // Its weights differ on each axis, so it doesn't commute with the rotation of the calibration:
+        // the smoothing acts along the calibrated axes, not along the axes of the sensor
+
+        if ((gravity[0] == 0) && (gravity[1] == 0) && (gravity[2] == 0)) {
+            gravity[0] = acceleration[0];
+            gravity[1] = acceleration[1];
+            gravity[2] = acceleration[2];
+        } else if (isGyroscopeFusionActive()) {
+            correctGyroscopeFusion(dt);
+        } else {
+            alpha0 = filterWeight(dt, mvGravity.getMeanValue(0) - acceleration[0]);
+            alpha1 = filterWeight(dt, mvGravity.getMeanValue(1) - acceleration[1]);
+            alpha2 = filterWeight(dt, mvGravity.getMeanValue(2) - acceleration[2]);
+
+            gravity[0] = (1 - alpha0) * gravity[0] + (alpha0) * acceleration[0];
+            gravity[1] = (1 - alpha1) * gravity[1] + (alpha1) * acceleration[1];
+            gravity[2] = (1 - alpha2) * gravity[2] + (alpha2) * acceleration[2];
+        }
+
+        mvGravity.loadSample(gravity[0], gravity[1], gravity[2]);
+
+        // Calculate Angles
+        // The Gyroscope Fusion has no lag to be smoothed out, so it uses the current gravity vector
+
+        if (isGyroscopeFusionActive()) calculateAngles(gravity[0], gravity[1], gravity[2]);
+        else calculateAngles(mvGravity.getMeanValue(0), mvGravity.getMeanValue(1), mvGravity.getMeanValue(2));
+
+        // Load angles into Auto-Locking MeanVariances
+
+        mvAngle.loadSample(angle[0], angle[1], angle[2]);
+
+        // Determine Rotation, ViewMode and Text Angles
+
+        return updateOrientation();
+    }
+
+
+    /**
+     * Processes a new reading of the gyroscope, when the Gyroscope Fusion is enabled.
+     * The gravity vector is rotated by the angular velocity of the device.
+     *
+     * @param timestamp The timestamp of the reading (in nanoseconds)
+     * @param x The angular velocity around the X axis (in rad/s)
+     * @param y The angular velocity around the Y axis (in rad/s)
+     * @param z The angular velocity around the Z axis (in rad/s)
+     * @return true if the display rotation has been changed by this reading
+     */
+    public boolean updateGyroscope(long timestamp, float x, float y, float z) {
+        if (!isGyroscopeFusionEnabled) return false;
+        if ((gyroscopeTimestamp == 0) || ((gravity[0] == 0) && (gravity[1] == 0) && (gravity[2] == 0))) {
+            // The first reading, or the gravity is not initialized yet
+            gyroscopeTimestamp = timestamp;
+            return false;
+        }
+        double dt = Math.min(Math.max((timestamp - gyroscopeTimestamp) * 1E-9, 0), FILTER_MAX_DT);
+        gyroscopeTimestamp = timestamp;
+
+        // The gravity is fixed in the world frame, so in the frame of the device it rotates
+        // by -w: dg/dt = g x w. The rotation of the interval dt is applied with the Rodrigues' formula.
+        calibrationModel.applyRotation(x, y, z, angularVelocity);
+        double wx = angularVelocity[0] + gyroscopeBias[0];
+        double wy = angularVelocity[1] + gyroscopeBias[1];
+        double wz = angularVelocity[2] + gyroscopeBias[2];
+        double w = Math.sqrt(wx * wx + wy * wy + wz * wz);
+        double theta = w * dt;
+        if (theta > 0) {
+            double kx = -wx / w;                // The unit axis of rotation
+            double ky = -wy / w;
+            double kz = -wz / w;
+            double cos = Math.cos(theta);
+            double sin = Math.sin(theta);
+            double kDotG = kx * gravity[0] + ky * gravity[1] + kz * gravity[2];
+            double g0 = gravity[0] * cos + (ky * gravity[2] - kz * gravity[1]) * sin + kx * kDotG * (1 - cos);
+            double g1 = gravity[1] * cos + (kz * gravity[0] - kx * gravity[2]) * sin + ky * kDotG * (1 - cos);
+            double g2 = gravity[2] * cos + (kx * gravity[1] - ky * gravity[0]) * sin + kz * kDotG * (1 - cos);
+            gravity[0] = (float) g0;
+            gravity[1] = (float) g1;
+            gravity[2] = (float) g2;
+        }
+
+        calculateAngles(gravity[0], gravity[1], gravity[2]);
+
+        return updateOrientation();
+    }
+
+
+    /**
+     * Processes a new reading of a rotation vector sensor, for example TYPE_GAME_ROTATION_VECTOR.
+     * The sensor fuses the inertial sensors by itself, so the reading is only converted into
+     * the gravity vector of the device; the offsets and the gains of the accelerometers
+     * don't apply to it, while the rotation of the calibration does.
+     *
+     * @param timestamp The timestamp of the reading (in nanoseconds)
+     * @param x The x component of the unit quaternion, x * sin(theta/2)
+     * @param y The y component of the unit quaternion, y * sin(theta/2)
+     * @param z The z component of the unit quaternion, z * sin(theta/2)
+     * @param w The scalar component of the unit quaternion, cos(theta/2)
+     * @return true if the display rotation has been changed by this reading
+     */
+    public boolean updateRotationVector(long timestamp, float x, float y, float z, float w) {
+        this.timestamp = timestamp;
+
+        // The gravity is the vertical axis of the world seen from the device,
+        // that is the third row of the rotation matrix of the quaternion
+        calibrationModel.applyRotation(
+                STANDARD_GRAVITY * 2 * (x * z - w * y),
+                STANDARD_GRAVITY * 2 * (y * z + w * x),
+                STANDARD_GRAVITY * (1 - 2 * (x * x + y * y)),
+                gravity);
+
+        mvGravity.loadSample(gravity[0], gravity[1], gravity[2]);
+
+        calculateAngles(gravity[0], gravity[1], gravity[2]);
+
+        mvAngle.loadSample(angle[0], angle[1], angle[2]);
+
+        return updateOrientation();
+    }
+
+
+    /**
+     * Checks the conditions of the Auto-Locking: 95% of the angles of the last 2 seconds
+     * must be within the given tolerance from their mean, and the device must not be moving.
+     * A slow movement can keep the angles within the tolerance, so the mean of the last half second
+     * must also be close to the mean of the 2 seconds: on a steady drift it moves ahead
+     * by 3/8 of the range of the angles.
+     * The statistics used for the check can be read with getAngleAutoLockStatistics().
+     *
+     * @param tolerance The maximum tolerance of the angles (in degrees)
+     * @param horizonCheck true if the check of the horizon is enabled
+     * @return true if the measure can be locked
+     */
+    public boolean isAutoLockAllowed(float tolerance, boolean horizonCheck) {
+        mvAngle.getStatistics(SIZE_OF_AUTOLOCK_WINDOW, angleAutoLockStatistics);
+        mvAngle.getStatistics(SIZE_OF_MOTION_WINDOW, angleMotionStatistics);
+
+        return (angleAutoLockStatistics.spread95[0] < tolerance)
+                && (angleAutoLockStatistics.spread95[1] < tolerance)
+                && (angleAutoLockStatistics.spread95[2] < tolerance)
+                && angleAutoLockStatistics.loaded
+                // The device is not drifting in the last half second
+                && (Math.abs(angleMotionStatistics.meanValue[0] - angleAutoLockStatistics.meanValue[0]) < tolerance * AUTOLOCK_MAX_DRIFT)
+                && (Math.abs(angleMotionStatistics.meanValue[1] - angleAutoLockStatistics.meanValue[1]) < tolerance * AUTOLOCK_MAX_DRIFT)
+                && (Math.abs(angleMotionStatistics.meanValue[2] - angleAutoLockStatistics.meanValue[2]) < tolerance * AUTOLOCK_MAX_DRIFT)
+                && ((!horizonCheck)
+                        || (Math.abs(angle[2]) >= AUTOLOCK_HORIZON_CHECK_THRESHOLD)
+                        || (Math.abs(angleAutoLockStatistics.meanValue[2]) < tolerance));
+    }
+
+
+    /**
+     * Clears the history of the angles used by the Auto-Locking.
+     */
+    public void resetAutoLock() {
+        mvAngle.reset();
+    }
+
+
+    /**
+     * Returns the weight of a new reading of the exponential filter.
+     * The filter is faster when the reading deviates from the mean value,
+     * in order to follow the movements of the device.
+     *
+     * @param dt The time elapsed from the previous reading (in seconds)
+     * @param deviation The difference between the mean value and the new reading
+     * @return The weight of the new reading, between 0 and 1
+     */
+    private static float filterWeight(double dt, float deviation) {
+        return (float) (1 - Math.exp(-dt * (1 + Math.abs(deviation) * FILTER_DEVIATION_BOOST) / FILTER_TIME_CONSTANT));
+    }
+
+
+    /**
+     * Pulls the gravity vector estimated by the Gyroscope Fusion towards the current reading
+     * of the accelerometers, and updates the estimation of the gyroscope bias.
+     *
+     * @param dt The time elapsed from the previous reading (in seconds)
+     */
+    private void correctGyroscopeFusion(double dt) {
+        float gravityNorm = (float) Math.sqrt(gravity[0] * gravity[0] + gravity[1] * gravity[1] + gravity[2] * gravity[2]);
+        float accelerationNorm = (float) Math.sqrt(acceleration[0] * acceleration[0] + acceleration[1] * acceleration[1] + acceleration[2] * acceleration[2]);
+        if ((gravityNorm > 0) && (accelerationNorm > 0)) {
+            // The rotation error (acceleration x gravity) is the angular velocity that
+            // would align the gravity vector to the acceleration
+            float k = (float) (FUSION_INTEGRAL_GAIN * dt / (gravityNorm * accelerationNorm));
+            gyroscopeBias[0] += k * (acceleration[1] * gravity[2] - acceleration[2] * gravity[1]);
+            gyroscopeBias[1] += k * (acceleration[2] * gravity[0] - acceleration[0] * gravity[2]);
+            gyroscopeBias[2] += k * (acceleration[0] * gravity[1] - acceleration[1] * gravity[0]);
+        }
+
+        float alpha = (float) (1 - Math.exp(-dt / FUSION_TIME_CONSTANT));
+        gravity[0] += alpha * (acceleration[0] - gravity[0]);
+        gravity[1] += alpha * (acceleration[1] - gravity[1]);
+        gravity[2] += alpha * (acceleration[2] - gravity[2]);
+    }
+
+
+    /**
+     * Calculates the angles from the given calibrated gravity vector.
+     * All the angles are obtained with FastTrig.atan2, in single precision:
+     * asin(a / |g|) = atan2(a, sqrt(|g|^2 - a^2)) and acos(a / |g|) = atan2(sqrt(|g|^2 - a^2), a).
+     */
+    private void calculateAngles(float g0, float g1, float g2) {
+        float g0Squared = g0 * g0;
+        float g1Squared = g1 * g1;
+        float g2Squared = g2 * g2;
+        gravityXY = (float) Math.sqrt(g0Squared + g1Squared);                   // Vector over the screen plane
+        gravityXYZ = (float) Math.sqrt(g0Squared + g1Squared + g2Squared);      // Spatial Vector
+
+        // The angle of the gravity on the screen plane, measured clockwise from the X axis
+        angleXY = 0;
+        if (gravityXY > 0) {
+            float theta = FastTrig.atan2Degrees(g1, g0);
+            angleXY = (theta < 0) ? -theta : 360 - theta;
+        }
+
+        angleXYZ = 0;
+        if (gravityXY > 0) {
+            angleXYZ = FastTrig.atan2Degrees(gravityXY, g2);
+        }
+
+        angle[0] = FastTrig.atan2Degrees(g0, (float) Math.sqrt(g1Squared + g2Squared));
+        angle[1] = FastTrig.atan2Degrees(g1, (float) Math.sqrt(g0Squared + g2Squared));
+        angle[2] = FastTrig.atan2Degrees(g2, gravityXY);
+    }
+
+
+    /**
+     * Determines the display rotation, the view mode and the rotation of the text labels
+     * from the current angles.
+     *
+     * @return true if the display rotation has been changed
+     */
+    private boolean updateOrientation() {
+        float oldDisplayRotation = displayRotation;
+
+        if (Math.abs(angle[2]) < 70) {
+            if ((angleXY > 270 - 45 + ROTATION_THRESHOLD) && (angleXY < 270 + 45 - ROTATION_THRESHOLD)) displayRotation = 0;
+            if ((angleXY > 90 - 45 + ROTATION_THRESHOLD) && (angleXY < 90 + 45 - ROTATION_THRESHOLD)) displayRotation = 180;
+            if ((angleXY > 180 - 45 + ROTATION_THRESHOLD) && (angleXY < 180 + 45 - ROTATION_THRESHOLD)) displayRotation = 270;
+            if ((angleXY > 270 + 45 + ROTATION_THRESHOLD) || (angleXY < 45 - ROTATION_THRESHOLD)) displayRotation = 90;
+        }
+
+        if (Math.abs(angle[2]) < 70) {
+            if (isFlat) isFlat = false;
+            angleTextLabels = (90 + angleXY) % 360;
+        }
+        if ((Math.abs(angle[2]) >= 70) && (Math.abs(angle[2]) < 75)) {
+            if ((displayRotation == 0) && (angleXY < 270)) {
+                angleTextLabels = displayRotation * (Math.abs(angle[2]) - 70) / 5
+                        + (((90 + angleXY) % 360) - 360) * (75 - Math.abs(angle[2])) / 5;
+            } else {
+                angleTextLabels = displayRotation * (Math.abs(angle[2]) - 70) / 5
+                        + ((90 + angleXY) % 360) * (75 - Math.abs(angle[2])) / 5;
+            }
+        }
+        if (Math.abs(angle[2]) >= 75) {
+            if (!isFlat) isFlat = true;
+            angleTextLabels = displayRotation;
+        }
+
+        return displayRotation != oldDisplayRotation;
+    }
+}
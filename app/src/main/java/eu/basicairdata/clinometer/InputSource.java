@@ -0,0 +1,92 @@
+/*
+ * InputSource - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+
+/**
+ * A source of the sensor readings that feed the InclinationEngine.
+ * Each implementation registers the sensors it needs and converts their readings
+ * into updates of the engine.
+ */
+public abstract class InputSource {
+
+    // The values of the Input Source preference
+    public static final int ACCELEROMETER = 0;
+    public static final int GYROSCOPE_FUSION = 1;
+    public static final int GAME_ROTATION_VECTOR = 2;
+
+
+    /**
+     * Creates the Input Source of the given type.
+     *
+     * @param type The type of Input Source, as stored in the preferences
+     * @return The new Input Source (the accelerometer one for unknown types)
+     */
+    public static InputSource create(int type) {
+        switch (type) {
+            case GYROSCOPE_FUSION:      return new GyroscopeFusionInputSource();
+            case GAME_ROTATION_VECTOR:  return new RotationVectorInputSource();
+            default:                    return new AccelerometerInputSource();
+        }
+    }
+
+
+    /**
+     * Returns true if the device has all the sensors needed by this Input Source.
+     */
+    public abstract boolean isAvailable(SensorManager sensorManager);
+
+
+    /**
+     * Registers the given listener for the sensors needed by this Input Source.
+     *
+     * @param sensorManager The SensorManager
+     * @param listener The listener that receives the readings
+     * @param handler The Handler of the thread that processes the readings (null for the UI thread)
+     */
+    public abstract void registerListener(SensorManager sensorManager, SensorEventListener listener, Handler handler);
+
+
+    /**
+     * Prepares the given engine to be fed by this Input Source.
+     */
+    public abstract void setup(InclinationEngine inclinationEngine);
+
+
+    /**
+     * Returns true if the given reading produces a new sample of the angles
+     * (the one loaded into the Auto-Locking statistics).
+     */
+    public abstract boolean isMainReading(SensorEvent event);
+
+
+    /**
+     * Feeds the engine with the given reading.
+     *
+     * @return true if the outputs of the engine have been updated
+     */
+    public abstract boolean process(SensorEvent event, InclinationEngine inclinationEngine);
+}
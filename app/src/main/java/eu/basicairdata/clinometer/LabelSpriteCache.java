@@ -0,0 +1,159 @@
+/*
+ * LabelSpriteCache - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * A cache of the text labels, rasterized together with their blurred halo into Bitmaps.
+ * Drawing a cached label is a single blit, with no text layout and no blur.
+ * The labels are keyed by text and Paint; the rotation is applied to the blit,
+ * so the same sprite is reused at any angle.
+ * When the cache is full, the least recently used sprite is evicted and its Bitmap is reused.
+ * The Bitmaps are never recycled explicitly, since they could still be referenced by a display list.
+ * All the methods must be called on the UI thread.
+ */
+public class LabelSpriteCache {
+
+    private static final int BITMAP_SIZE_STEP = 32;     // The Bitmaps are rounded up, in order to be reused by other labels
+
+    /**
+     * A label rasterized into a Bitmap.
+     * The Bitmap must be drawn at (textX + offsetX, textY + offsetY),
+     * where (textX, textY) is the origin of the text as for Canvas.drawText.
+     */
+    public static class Sprite {
+        private char[] text = new char[AngleFormat.BUFFER_SIZE + 1];
+        private int length = -1;                        // The length of the text (-1 = empty)
+        private Paint paint;                            // The Paint of the text
+        private long lastUse;                           // The LRU counter of the last use
+
+        public Bitmap bitmap;
+        public int textWidth;                           // The width of the bounds of the text
+        public int textHeight;                          // The height of the bounds of the text
+        public int offsetX;                             // The position of the Bitmap relative to the origin of the text
+        public int offsetY;
+
+
+        private boolean matches(char[] text, int start, int end, Paint paint) {
+            if ((this.paint != paint) || (length != end - start)) return false;
+            for (int i = 0; i < length; i++) if (this.text[i] != text[start + i]) return false;
+            return true;
+        }
+    }
+
+    private final Sprite[] sprites;
+    private final Paint haloPaint;
+    private final int margin;                           // The space around the text bounds for the halo
+    private final Canvas spriteCanvas = new Canvas();
+    private final Rect textBounds = new Rect();
+    private long useCounter = 0;
+
+
+    /**
+     * Creates a new LabelSpriteCache.
+     *
+     * @param capacity The maximum number of sprites
+     * @param haloPaint The Paint of the halo, drawn below the text with the alpha of the text Paint
+     * @param margin The space (in px) around the text reserved to the halo
+     */
+    public LabelSpriteCache(int capacity, Paint haloPaint, int margin) {
+        this.haloPaint = haloPaint;
+        this.margin = margin;
+        sprites = new Sprite[capacity];
+        for (int i = 0; i < capacity; i++) sprites[i] = new Sprite();
+    }
+
+
+    /**
+     * Returns the sprite of a label, rasterizing it if it is not cached.
+     *
+     * @param text The buffer that contains the text
+     * @param start The position of the first char of the text
+     * @param end The position that follows the last char of the text
+     * @param paint The Paint of the text
+     * @return The sprite
+     */
+    public Sprite get(char[] text, int start, int end, Paint paint) {
+        useCounter++;
+        Sprite leastRecentlyUsed = sprites[0];
+        for (Sprite sprite : sprites) {
+            if (sprite.matches(text, start, end, paint)) {
+                sprite.lastUse = useCounter;
+                return sprite;
+            }
+            if (sprite.lastUse < leastRecentlyUsed.lastUse) leastRecentlyUsed = sprite;
+        }
+        rasterize(leastRecentlyUsed, text, start, end, paint);
+        leastRecentlyUsed.lastUse = useCounter;
+        return leastRecentlyUsed;
+    }
+
+
+    private void rasterize(Sprite sprite, char[] text, int start, int end, Paint paint) {
+        paint.getTextBounds(text, start, end - start, textBounds);
+        int width = roundUp(textBounds.width() + 2 * margin);
+        int height = roundUp(textBounds.height() + 2 * margin);
+
+        if ((sprite.bitmap == null) || (sprite.bitmap.getWidth() < width) || (sprite.bitmap.getHeight() < height)) {
+            sprite.bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        } else sprite.bitmap.eraseColor(Color.TRANSPARENT);
+
+        sprite.textWidth = textBounds.width();
+        sprite.textHeight = textBounds.height();
+        sprite.offsetX = textBounds.left - margin;
+        sprite.offsetY = textBounds.top - margin;
+
+        spriteCanvas.setBitmap(sprite.bitmap);
+        haloPaint.setAlpha(paint.getAlpha());
+        spriteCanvas.drawText(text, start, end - start, -sprite.offsetX, -sprite.offsetY, haloPaint);
+        spriteCanvas.drawText(text, start, end - start, -sprite.offsetX, -sprite.offsetY, paint);
+        spriteCanvas.setBitmap(null);
+
+        if (sprite.text.length < end - start) sprite.text = new char[end - start];
+        System.arraycopy(text, start, sprite.text, 0, end - start);
+        sprite.length = end - start;
+        sprite.paint = paint;
+    }
+
+
+    private static int roundUp(int size) {
+        return (size + BITMAP_SIZE_STEP - 1) / BITMAP_SIZE_STEP * BITMAP_SIZE_STEP;
+    }
+
+
+    /**
+     * Empties the cache and releases the Bitmaps.
+     */
+    public void clear() {
+        for (Sprite sprite : sprites) {
+            sprite.bitmap = null;
+            sprite.length = -1;
+            sprite.paint = null;
+            sprite.lastUse = 0;
+        }
+    }
+}
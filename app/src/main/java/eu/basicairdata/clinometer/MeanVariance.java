@@ -21,8 +21,6 @@
 
 package eu.basicairdata.clinometer;
 
-import android.util.Log;
-
 import java.util.Arrays;
 
 public class MeanVariance {
@@ -31,6 +29,19 @@ public class MeanVariance {
     private int currentSample = -1;
     private int loaded = 0;
 
+    // The statistics are updated incrementally using running (prefix) sums of the samples
+    // and of their squares, stored in two circular buffers of size+1 elements:
+    // the sum of the last n samples is the difference between the newest running sum
+    // and the one n positions before, so the statistics of any tail window are
+    // calculated in constant time.
+    // The samples are summed as differences from a reference value (shift) in order to
+    // limit the cancellation errors, and the running sums are recalculated from scratch
+    // once per buffer cycle to remove the drift.
+    private double shift = 0;           // The reference value subtracted from the samples
+    private final double[] runningSum;              // The running sums of (sample - shift)
+    private final double[] runningSumOfSquares;     // The running sums of (sample - shift)^2
+    private int currentRunningSum = 0;              // The index of the newest running sum
+
     private float meanValue = 0;
     private float variance = 0;
     private float stdDeviation = 0;
@@ -39,9 +50,17 @@ public class MeanVariance {
 
     public MeanVariance(int size) {
         sample = new float[size];
+        runningSum = new double[size + 1];
+        runningSumOfSquares = new double[size + 1];
     }
 
 
+    /**
+     * Loads a new sample into the buffer, replacing the oldest one when the buffer is full.
+     * The statistics are updated in constant time.
+     *
+     * @param sample The new sample
+     */
     public void loadSample(float sample) {
         currentSample++;
         if (currentSample == this.sample.length) {
@@ -52,6 +71,16 @@ public class MeanVariance {
         this.sample[currentSample] = sample;
         loaded++;
 
+        if (currentSample == 0) recalculateRunningSums();  // Drift correction, once per buffer cycle
+        else {
+            int previous = currentRunningSum;
+            currentRunningSum++;
+            if (currentRunningSum == runningSum.length) currentRunningSum = 0;
+            double d = sample - shift;
+            runningSum[currentRunningSum] = runningSum[previous] + d;
+            runningSumOfSquares[currentRunningSum] = runningSumOfSquares[previous] + d * d;
+        }
+
         calculate();
     }
 
@@ -60,6 +89,11 @@ public class MeanVariance {
         loaded = 0;
         currentSample = -1;
 
+        shift = 0;
+        currentRunningSum = 0;
+        Arrays.fill(runningSum, 0);
+        Arrays.fill(runningSumOfSquares, 0);
+
         meanValue = 0;
         variance = 0;
         stdDeviation = 0;
@@ -108,96 +142,131 @@ public class MeanVariance {
     }
 
 
+    /**
+     * Returns the half width of the band that contains 95% of the samples of the whole buffer
+     * (1.96 sigma), as MeanVariance3.Statistics.spread95.
+     * It is used by the calibration, and it is not the uncertainty of the mean returned by getTolerance(n).
+     */
     public float getTolerance() {
         return tolerance;
     }
 
 
+    /**
+     * Recalculates the running sums from the samples in the buffer, from the oldest
+     * to the newest one. The newest sample is taken as the new reference value.
+     */
+    private void recalculateRunningSums() {
+        int nsamples = Math.min(sample.length, loaded);
+        int index = currentSample - nsamples + 1;
+        if (index < 0) index += sample.length;
+
+        shift = sample[currentSample];
+        currentRunningSum = 0;
+        runningSum[0] = 0;
+        runningSumOfSquares[0] = 0;
+        for (int i = 0; i < nsamples; i++) {
+            double d = sample[index] - shift;
+            runningSum[currentRunningSum + 1] = runningSum[currentRunningSum] + d;
+            runningSumOfSquares[currentRunningSum + 1] = runningSumOfSquares[currentRunningSum] + d * d;
+            currentRunningSum++;
+            index++;
+            if (index == sample.length) index = 0;
+        }
+    }
+
+
+    /**
+     * Returns the sum of (sample - shift) of the last n samples.
+     */
+    private double sumOfLastSamples(int n) {
+        int first = currentRunningSum - n;
+        if (first < 0) first += runningSum.length;
+        return runningSum[currentRunningSum] - runningSum[first];
+    }
+
+
+    /**
+     * Returns the sum of (sample - shift)^2 of the last n samples.
+     */
+    private double sumOfSquaresOfLastSamples(int n) {
+        int first = currentRunningSum - n;
+        if (first < 0) first += runningSumOfSquares.length;
+        return runningSumOfSquares[currentRunningSum] - runningSumOfSquares[first];
+    }
+
+
+    /**
+     * Returns the (population) variance of the last n samples.
+     */
+    private double varianceOfLastSamples(int n) {
+        double mv = sumOfLastSamples(n) / n;
+        return Math.max(0, sumOfSquaresOfLastSamples(n) / n - mv * mv);
+    }
+
+
     private void calculate() {
         int nsamples = Math.min(sample.length, loaded);
         if (nsamples > 0) {
 
             // ------ Mean value
-            double mv = 0;
-            for (int i = 0; i < nsamples; i++) {
-                mv += sample[i];
-            }
-            mv /= nsamples;
-            meanValue = (float) mv;
+            meanValue = (float) (shift + sumOfLastSamples(nsamples) / nsamples);
 
             // ------ Variance
-            double var = 0;
-            for (int i = 0; i < nsamples; i++) {
-                var += (sample[i] - mv) * (sample[i] - mv);
-            }
-            variance /= nsamples;
+            double var = varianceOfLastSamples(nsamples);
+            variance = (float) var;
 
             // ------ Standard Deviation
             stdDeviation = (float) Math.sqrt(var);
 
             // ------ Uncertainty (confidence 95%)
-            tolerance = (float) (1.96d * stdDeviation / Math.sqrt(nsamples));
+            tolerance = (float) (1.96d * Math.sqrt(var));
         } else {
             reset();
         }
     }
 
 
+    // The following methods return the statistics of the last samples loaded.
+    // They run in constant time and don't allocate memory, so they can be polled
+    // on each sensor event for many window lengths.
+    // If number_of_last_samples <= 0 they return the statistics of the whole buffer;
+    // if number_of_last_samples is not smaller than the number of samples loaded they return 0.
+
+
     public float getMeanValue(int number_of_last_samples) {
         int nsamples = Math.min(sample.length, loaded);
         if (number_of_last_samples <= 0) return meanValue;
         if (number_of_last_samples >= nsamples) return 0;
-        if (nsamples > 0) {
-            // ------ Mean value
-            double mv = 0;
-            int index = (loaded - number_of_last_samples) % nsamples;
-            Log.d("MeanVariance", ("MeanVariance: Loaded="+ loaded + " Start=" + index));
-
-            for (int i = 0; i < number_of_last_samples; i++) {
-                mv += sample[index];
-                index++;
-                if (index == nsamples) index = 0;
-            }
-            mv /= number_of_last_samples;
-
-            Log.d("MeanVariance", (String.format("MeanVariance: Mean=%+1.4f Uncertainty=%+1.4f (Std Deviation=%+1.4f)", meanValue, tolerance, stdDeviation)));
-            return (float) mv;
-        }
-        return 0;
+        return (float) (shift + sumOfLastSamples(number_of_last_samples) / number_of_last_samples);
     }
 
 
-    public float getTolerance(int number_of_last_samples) {
+    public float getVariance(int number_of_last_samples) {
         int nsamples = Math.min(sample.length, loaded);
-        if (number_of_last_samples <= 0) return tolerance;
+        if (number_of_last_samples <= 0) return variance;
         if (number_of_last_samples >= nsamples) return 0;
-        if (nsamples > 0) {
-            // ------ Mean value
-            double mv = 0;
-            int index = (loaded - number_of_last_samples) % nsamples;
-            for (int i = 0; i < number_of_last_samples; i++) {
-                mv += sample[index];
-                index++;
-                if (index == nsamples) index = 0;
-            }
-            mv /= number_of_last_samples;
+        return (float) varianceOfLastSamples(number_of_last_samples);
+    }
 
-            // ------ Variance
-            double var = 0;
-            index = (loaded - number_of_last_samples) % nsamples;
-            for (int i = 0; i < number_of_last_samples; i++) {
-                var += (sample[index] - mv) * (sample[index] - mv);
-                index++;
-                if (index == nsamples) index = 0;
-            }
-            var /= number_of_last_samples;
 
-            // ------ Standard Deviation
-            double stddv = (float) Math.sqrt(var);
+    public float getStdDeviation(int number_of_last_samples) {
+        int nsamples = Math.min(sample.length, loaded);
+        if (number_of_last_samples <= 0) return stdDeviation;
+        if (number_of_last_samples >= nsamples) return 0;
+        return (float) Math.sqrt(varianceOfLastSamples(number_of_last_samples));
+    }
 
-            // ------ Uncertainty (confidence 95%)
-            return (float) (1.96d * stddv / Math.sqrt(number_of_last_samples));
-        }
-        return 0;
+
+    /**
+     * Returns the uncertainty of the mean of the last samples (1.96 sigma / sqrt(n), confidence 95%).
+     */
+    public float getTolerance(int number_of_last_samples) {
+        int nsamples = Math.min(sample.length, loaded);
+        if (number_of_last_samples <= 0) return tolerance;
+        if (number_of_last_samples >= nsamples) return 0;
+
+        // ------ Uncertainty of the mean value (confidence 95%)
+        return (float) (1.96d * Math.sqrt(varianceOfLastSamples(number_of_last_samples) / number_of_last_samples));
     }
 }
@@ -0,0 +1,234 @@
+/*
+ * MeanVariance3 - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import java.util.Arrays;
+
+/**
+ * The Mean and Variance of the samples of the three axes of a sensor.
+ * The three axes are loaded in lockstep: their samples are stored interleaved in a single
+ * buffer that shares the same cursor, and they are updated in a single pass.
+ * As in MeanVariance, the statistics are calculated in constant time from running sums
+ * of the samples and of their squares.
+ */
+public class MeanVariance3 {
+
+    private final int size;
+    private final float[] sample;                   // The samples, interleaved: x0 y0 z0 x1 y1 z1 ...
+    private int currentSample = -1;
+    private int loaded = 0;
+
+    private final double[] shift = new double[3];   // The reference values subtracted from the samples
+    private final double[] runningSum;              // The running sums of (sample - shift), interleaved
+    private final double[] runningSumOfSquares;     // The running sums of (sample - shift)^2, interleaved
+    private int currentRunningSum = 0;              // The index of the newest running sums
+
+    private final float[] meanValue = new float[3];
+
+
+    /**
+     * A reusable holder for the statistics of the three axes.
+     * spread95 is the half width of the band that contains 95% of the samples (1.96 sigma),
+     * not the uncertainty of the mean returned by MeanVariance.getTolerance(n) (1.96 sigma / sqrt(n)):
+     * the Auto-Locking checks how much the angles move, not how well their mean is known.
+     */
+    public static class Statistics {
+        public final float[] meanValue = new float[3];
+        public final float[] stdDeviation = new float[3];
+        public final float[] spread95 = new float[3];      // 95% of the samples are within meanValue +- spread95
+        public boolean loaded = false;                      // True if all the samples of the window are loaded
+    }
+
+
+    public MeanVariance3(int size) {
+        this.size = size;
+        sample = new float[size * 3];
+        runningSum = new double[(size + 1) * 3];
+        runningSumOfSquares = new double[(size + 1) * 3];
+    }
+
+
+    /**
+     * Loads a new sample of the three axes into the buffer, replacing the oldest one
+     * when the buffer is full. The mean values are updated in constant time.
+     *
+     * @param x The new sample of the axis 0
+     * @param y The new sample of the axis 1
+     * @param z The new sample of the axis 2
+     */
+    public void loadSample(float x, float y, float z) {
+        currentSample++;
+        if (currentSample == size) currentSample = 0;
+
+        int i = currentSample * 3;
+        sample[i] = x;
+        sample[i + 1] = y;
+        sample[i + 2] = z;
+        loaded++;
+
+        if (currentSample == 0) recalculateRunningSums();  // Drift correction, once per buffer cycle
+        else {
+            int p = currentRunningSum * 3;
+            currentRunningSum++;
+            if (currentRunningSum == size + 1) currentRunningSum = 0;
+            int c = currentRunningSum * 3;
+
+            double d0 = x - shift[0];
+            double d1 = y - shift[1];
+            double d2 = z - shift[2];
+            runningSum[c] = runningSum[p] + d0;
+            runningSum[c + 1] = runningSum[p + 1] + d1;
+            runningSum[c + 2] = runningSum[p + 2] + d2;
+            runningSumOfSquares[c] = runningSumOfSquares[p] + d0 * d0;
+            runningSumOfSquares[c + 1] = runningSumOfSquares[p + 1] + d1 * d1;
+            runningSumOfSquares[c + 2] = runningSumOfSquares[p + 2] + d2 * d2;
+        }
+
+        int nsamples = Math.min(size, loaded);
+        int c = currentRunningSum * 3;
+        int f = first(nsamples) * 3;
+        meanValue[0] = (float) (shift[0] + (runningSum[c] - runningSum[f]) / nsamples);
+        meanValue[1] = (float) (shift[1] + (runningSum[c + 1] - runningSum[f + 1]) / nsamples);
+        meanValue[2] = (float) (shift[2] + (runningSum[c + 2] - runningSum[f + 2]) / nsamples);
+    }
+
+
+    public void reset() {
+        loaded = 0;
+        currentSample = -1;
+        currentRunningSum = 0;
+
+        Arrays.fill(shift, 0);
+        Arrays.fill(runningSum, 0);
+        Arrays.fill(runningSumOfSquares, 0);
+        Arrays.fill(meanValue, 0);
+        Arrays.fill(sample, 0);
+    }
+
+
+    public boolean getLoaded() {
+        return (loaded >= size);
+    }
+
+
+    public boolean isReady() {
+        return (loaded > 10);
+    }
+
+
+    /**
+     * Returns the mean value of the whole buffer for the given axis.
+     *
+     * @param axis The axis (0, 1 or 2)
+     * @return The mean value
+     */
+    public float getMeanValue(int axis) {
+        return meanValue[axis];
+    }
+
+
+    /**
+     * Fills the given holder with the statistics of the last samples loaded.
+     * The window is limited to the samples currently loaded; until the window is
+     * fully loaded, result.loaded is false.
+     *
+     * @param number_of_last_samples The number of samples of the window
+     * @param result The holder to fill
+     */
+    public void getStatistics(int number_of_last_samples, Statistics result) {
+        int nsamples = Math.min(Math.min(size, loaded), Math.max(1, number_of_last_samples));
+        result.loaded = (loaded >= number_of_last_samples) && (number_of_last_samples <= size);
+        if (loaded == 0) {
+            Arrays.fill(result.meanValue, 0);
+            Arrays.fill(result.stdDeviation, 0);
+            Arrays.fill(result.spread95, 0);
+            return;
+        }
+
+        int c = currentRunningSum * 3;
+        int f = first(nsamples) * 3;
+        for (int axis = 0; axis < 3; axis++) {
+            double mv = (runningSum[c + axis] - runningSum[f + axis]) / nsamples;
+            double var = Math.max(0, (runningSumOfSquares[c + axis] - runningSumOfSquares[f + axis]) / nsamples - mv * mv);
+            result.meanValue[axis] = (float) (shift[axis] + mv);
+            result.stdDeviation[axis] = (float) Math.sqrt(var);
+            result.spread95[axis] = (float) (1.96d * Math.sqrt(var));
+        }
+    }
+
+
+    /**
+     * Fills the given holder with the statistics of the whole buffer.
+     *
+     * @param result The holder to fill
+     */
+    public void getStatistics(Statistics result) {
+        getStatistics(size, result);
+    }
+
+
+    /**
+     * Returns the index of the running sums that precede the last n samples.
+     */
+    private int first(int n) {
+        int first = currentRunningSum - n;
+        if (first < 0) first += size + 1;
+        return first;
+    }
+
+
+    /**
+     * Recalculates the running sums from the samples in the buffer, from the oldest
+     * to the newest one. The newest samples are taken as the new reference values.
+     */
+    private void recalculateRunningSums() {
+        int nsamples = Math.min(size, loaded);
+        int index = currentSample - nsamples + 1;
+        if (index < 0) index += size;
+
+        int i = currentSample * 3;
+        shift[0] = sample[i];
+        shift[1] = sample[i + 1];
+        shift[2] = sample[i + 2];
+
+        currentRunningSum = 0;
+        runningSum[0] = 0;
+        runningSum[1] = 0;
+        runningSum[2] = 0;
+        runningSumOfSquares[0] = 0;
+        runningSumOfSquares[1] = 0;
+        runningSumOfSquares[2] = 0;
+        for (int n = 0; n < nsamples; n++) {
+            int p = currentRunningSum * 3;
+            int c = p + 3;
+            int s = index * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                double d = sample[s + axis] - shift[axis];
+                runningSum[c + axis] = runningSum[p + axis] + d;
+                runningSumOfSquares[c + axis] = runningSumOfSquares[p + axis] + d * d;
+            }
+            currentRunningSum++;
+            index++;
+            if (index == size) index = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MeasurementPublisher - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the MeasurementSnapshots from one writer thread (the sensor thread)
+ * to one reader thread (the UI thread) without locks, using a triple buffer:
+ * the writer fills its back snapshot and swaps it with the middle one, the reader
+ * swaps its front snapshot with the middle one when a newer snapshot is available.
+ * The writer never touches the snapshot held by the reader, so the reader never sees
+ * torn values, and neither of the two threads ever waits for the other.
+ */
+public class MeasurementPublisher {
+
+    private static final int INDEX_MASK = 0x03;
+    private static final int NEW_DATA = 0x04;           // Set in middle when it holds a snapshot not yet acquired
+
+    private final MeasurementSnapshot[] snapshots = {
+            new MeasurementSnapshot(), new MeasurementSnapshot(), new MeasurementSnapshot() };
+
+    private int back = 0;                               // Owned by the writer
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int front = 2;                              // Owned by the reader
+
+
+    /**
+     * Returns the snapshot that the writer can fill before calling publish().
+     * To be called only by the writer thread.
+     */
+    public MeasurementSnapshot getBackSnapshot() {
+        return snapshots[back];
+    }
+
+
+    /**
+     * Makes the back snapshot available to the reader.
+     * To be called only by the writer thread.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | NEW_DATA) & INDEX_MASK;
+    }
+
+
+    /**
+     * Returns the most recent published snapshot.
+     * The returned snapshot is not modified until the next call of acquire().
+     * To be called only by the reader thread.
+     */
+    public MeasurementSnapshot acquire() {
+        if ((middle.get() & NEW_DATA) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+
+
+    /**
+     * Returns true if a snapshot has been published after the last call of acquire().
+     */
+    public boolean hasNewSnapshot() {
+        return (middle.get() & NEW_DATA) != 0;
+    }
+}
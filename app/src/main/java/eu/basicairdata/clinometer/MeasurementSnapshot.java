@@ -0,0 +1,55 @@
+/*
+ * MeasurementSnapshot - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * A copy of the outputs of the InclinationEngine at a given time.
+ * The snapshots are exchanged between the sensor thread and the UI thread
+ * by the MeasurementPublisher; the UI must treat them as read-only.
+ */
+public class MeasurementSnapshot {
+
+    public final float[] angle = new float[3];      // The (filtered) angles (in degrees)
+    public float angleXY = 0;                       // The angle on the horizontal plane (in degrees)
+    public float angleXYZ = 0;                      // The angle between XY vector and the vertical (in degrees)
+    public float angleTextLabels = 0;               // The rotation angle for the text labels
+    public boolean isFlat = true;                   // True if the device is oriented flat (for example on a table)
+    public float displayRotation = 0;               // The rotation angle from the natural position of the device
+    public long timestamp = 0;                      // The timestamp of the sample (in nanoseconds)
+
+
+    /**
+     * Copies the current outputs of the given engine into this snapshot.
+     */
+    public void set(InclinationEngine inclinationEngine) {
+        float[] engineAngle = inclinationEngine.getAngles();
+        angle[0] = engineAngle[0];
+        angle[1] = engineAngle[1];
+        angle[2] = engineAngle[2];
+        angleXY = inclinationEngine.getAngleXY();
+        angleXYZ = inclinationEngine.getAngleXYZ();
+        angleTextLabels = inclinationEngine.getAngleTextLabels();
+        isFlat = inclinationEngine.isFlat();
+        displayRotation = inclinationEngine.getDisplayRotation();
+        timestamp = inclinationEngine.getTimestamp();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * RotationVectorInputSource - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+
+/**
+ * The Input Source based on the TYPE_GAME_ROTATION_VECTOR sensor.
+ * The sensor fusion is made by the device, often in the sensor hub, so the
+ * InclinationEngine only converts the quaternion into the angles.
+ */
+public class RotationVectorInputSource extends InputSource {
+
+    private final static int ROTATION_VECTOR_UPDATE_INTERVAL_MICROS = 10000;
+
+
+    @Override
+    public boolean isAvailable(SensorManager sensorManager) {
+        return sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR) != null;
+    }
+
+
+    @Override
+    public void registerListener(SensorManager sensorManager, SensorEventListener listener, Handler handler) {
+        sensorManager.registerListener(listener, sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR), ROTATION_VECTOR_UPDATE_INTERVAL_MICROS, handler);
+    }
+
+
+    @Override
+    public void setup(InclinationEngine inclinationEngine) {
+        inclinationEngine.setGyroscopeFusion(false);
+    }
+
+
+    @Override
+    public boolean isMainReading(SensorEvent event) {
+        return event.sensor.getType() == Sensor.TYPE_GAME_ROTATION_VECTOR;
+    }
+
+
+    @Override
+    public boolean process(SensorEvent event, InclinationEngine inclinationEngine) {
+        if (event.sensor.getType() != Sensor.TYPE_GAME_ROTATION_VECTOR) return false;
+        float x = event.values[0];
+        float y = event.values[1];
+        float z = event.values[2];
+        // The scalar component is optional: when missing it is derived from the unit norm
+        float w = (event.values.length > 3) ? event.values[3] : (float) Math.sqrt(Math.max(0, 1 - x * x - y * y - z * z));
+        inclinationEngine.updateRotationVector(event.timestamp, x, y, z, w);
+        return true;
+    }
+}
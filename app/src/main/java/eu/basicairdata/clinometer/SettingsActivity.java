@@ -22,10 +22,12 @@
 package eu.basicairdata.clinometer;
 
 import android.Manifest;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
+import android.hardware.SensorManager;
 import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
@@ -66,6 +68,7 @@ import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CALIBRAT
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CAMERA;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CAMERA_EXPOSURE_COMPENSATION;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_CAMERA_PERMISSION;
+import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_INPUT_SOURCE;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_KEEP_SCREEN_ON;
 import static eu.basicairdata.clinometer.ClinometerApplication.KEY_PREF_ONLINE_HELP;
 
@@ -174,6 +177,20 @@ public class SettingsActivity extends AppCompatActivity {
             });
 
             preferenceExposureCompensation = findPreference(KEY_PREF_CAMERA_EXPOSURE_COMPENSATION);
+
+            // Only the Input Sources supported by the sensors of the device can be selected
+            SensorManager sensorManager = (SensorManager) getActivity().getSystemService(Context.SENSOR_SERVICE);
+            ListPreference preferenceInputSource = findPreference(KEY_PREF_INPUT_SOURCE);
+            List<CharSequence> inputSourceEntries = new ArrayList<>();
+            List<CharSequence> inputSourceEntryValues = new ArrayList<>();
+            for (int i = 0; i < preferenceInputSource.getEntryValues().length; i++) {
+                if (InputSource.create(Integer.parseInt(preferenceInputSource.getEntryValues()[i].toString())).isAvailable(sensorManager)) {
+                    inputSourceEntries.add(preferenceInputSource.getEntries()[i]);
+                    inputSourceEntryValues.add(preferenceInputSource.getEntryValues()[i]);
+                }
+            }
+            preferenceInputSource.setEntries(inputSourceEntries.toArray(new CharSequence[0]));
+            preferenceInputSource.setEntryValues(inputSourceEntryValues.toArray(new CharSequence[0]));
             preferenceCalibration = findPreference(KEY_PREF_CALIBRATION);
 
             preferenceAbout = findPreference(KEY_PREF_ABOUT);
@@ -0,0 +1,81 @@
+/*
+ * SpringAnimator - Java Class for Android
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+/**
+ * An angle animated by a CriticallyDampedSpring, driven by the FrameScheduler.
+ * The value is evaluated at the time of the current frame, so all the Views drawn in a frame
+ * see the same value. When the spring is at rest the animation is idle and it doesn't request more frames.
+ */
+public class SpringAnimator implements FrameScheduler.Animation {
+
+    private final CriticallyDampedSpring spring;
+    private long frameTimeNanos = 0;            // The time of the current frame
+    private boolean isIdle = true;
+
+
+    public SpringAnimator(float initialValue) {
+        spring = new CriticallyDampedSpring(initialValue, CriticallyDampedSpring.DEFAULT_ANGULAR_FREQUENCY);
+    }
+
+
+    @Override
+    public boolean doAnimationFrame(long frameTimeNanos) {
+        this.frameTimeNanos = frameTimeNanos;
+        isIdle = !spring.isAnimating(frameTimeNanos);
+        return !isIdle;
+    }
+
+
+    /**
+     * Changes the final value of the Animation to a new value.
+     * @param setPoint The new set Point
+     */
+    public void setTargetValue(float setPoint) {
+        // An idle spring starts moving now, not at the time of its last frame
+        if (isIdle) frameTimeNanos = System.nanoTime();
+        spring.setTargetValue(setPoint, frameTimeNanos);
+        isIdle = !spring.isAnimating(frameTimeNanos);
+    }
+
+    /**
+     * Returns the current value of the Animation.
+     * @return The current value
+     */
+    public float getValue() {
+        return spring.getValue(frameTimeNanos);
+    }
+
+
+    /**
+     * Returns true if the Animation has not reached the set point yet.
+     * @return true if the value is still changing
+     */
+    public boolean isAnimating() {
+        return !isIdle;
+    }
+
+    public void setValue(float setPoint) {
+        spring.setValue(setPoint);
+        isIdle = true;
+    }
+}
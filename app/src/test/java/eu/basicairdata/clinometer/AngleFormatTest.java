@@ -0,0 +1,147 @@
+/*
+ * AngleFormatTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the output of AngleFormat against the String.format based formatting it replaced,
+ * across the whole range of the angles.
+ */
+public class AngleFormatTest {
+
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY};
+
+
+    /**
+     * The original conversion into a fraction, with no bound on the continued fraction.
+     */
+    // Based on the good Matthew556's answer on
+    // https://stackoverflow.com/questions/31585931/how-to-convert-decimal-to-fractions
+    private static String convertDecimalToFraction(double x, Locale locale) {
+        double xx = Math.abs(x);
+        boolean isNegative = x != Math.abs(x);
+        double tolerance = 1.0E-2;
+        double h1 = 1;
+        double h2 = 0;
+        double k1 = 0;
+        double k2 = 1;
+        double b = xx;
+        do {
+            double a = Math.floor(b);
+            double aux = h1;
+            h1 = a * h1 + h2;
+            h2 = aux;
+            aux = k1;
+            k1 = a * k1 + k2;
+            k2 = aux;
+            b = 1 / (b - a);
+        } while (Math.abs(xx - h1 / k1) > xx * tolerance);
+
+        if (k1 > 1000) return "0";
+        if (h1 > 1000) return isNegative ? "<<" : ">>";
+        return (isNegative ? "-" : "") + String.format(locale, "%.0f", h1) + ":"
+                + String.format(locale, "%.0f", k1);
+    }
+
+
+    /**
+     * The original formatting of the units of measurement, with String.format.
+     */
+    private static String formatReference(float number, int unitOfMeasurement, Locale locale) {
+        switch (unitOfMeasurement) {
+            case AngleFormat.UM_DEGREES:
+                return String.format(locale, "%.1f", number) + "°";
+            case AngleFormat.UM_RADIANS:
+                return String.format(locale, "%.2f", Math.toRadians(number));
+            case AngleFormat.UM_PERCENT:
+                float percent;
+                if (number == 90) percent = 1000;
+                else if (number == -90) percent = -1000;
+                else percent = (float) Math.tan(Math.toRadians(number)) * 100.0f;
+
+                if (percent >= 1000) return ">>";
+                if (percent <= -1000) return "<<";
+                if (Math.abs(percent) < 100) return String.format(locale, "%.1f", percent) + "%";
+                return String.format(locale, "%.0f", percent) + "%";
+            case AngleFormat.UM_FRACTIONAL:
+                return convertDecimalToFraction((float) Math.tan(Math.toRadians(number)), locale);
+        }
+        return "";
+    }
+
+
+    /**
+     * Compares AngleFormat with the reference from -90° to 90° in steps of 0.01°.
+     */
+    private static void checkRange(int unitOfMeasurement) {
+        for (Locale locale : LOCALES) {
+            AngleFormat angleFormat = new AngleFormat("°", "%", locale);
+            for (int i = -9000; i <= 9000; i++) {
+                float angle = i / 100.0f;
+                assertEquals("Angle " + angle + " " + locale,
+                        formatReference(angle, unitOfMeasurement, locale),
+                        angleFormat.format(angle, unitOfMeasurement));
+            }
+        }
+    }
+
+
+    @Test
+    public void fractionalFormatMatchesTheOriginalConversion() {
+        checkRange(AngleFormat.UM_FRACTIONAL);
+    }
+
+
+    @Test
+    public void fractionalFormatOfTheSmallAndTheBigSlopes() {
+        AngleFormat angleFormat = new AngleFormat("°", "%", Locale.US);
+        assertEquals("0:1", angleFormat.format(0, AngleFormat.UM_FRACTIONAL));
+        assertEquals("0", angleFormat.format(0.01f, AngleFormat.UM_FRACTIONAL));
+        assertEquals("1:1", angleFormat.format(45, AngleFormat.UM_FRACTIONAL));
+        assertEquals("-1:1", angleFormat.format(-45, AngleFormat.UM_FRACTIONAL));
+        assertEquals(">>", angleFormat.format(90, AngleFormat.UM_FRACTIONAL));
+        assertEquals("<<", angleFormat.format(-90, AngleFormat.UM_FRACTIONAL));
+    }
+
+
+    @Test
+    public void degreesMatchStringFormat() {
+        checkRange(AngleFormat.UM_DEGREES);
+    }
+
+
+    @Test
+    public void radiansMatchStringFormat() {
+        checkRange(AngleFormat.UM_RADIANS);
+    }
+
+
+    @Test
+    public void percentMatchesStringFormat() {
+        checkRange(AngleFormat.UM_PERCENT);
+    }
+}
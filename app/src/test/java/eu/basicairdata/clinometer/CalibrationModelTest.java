@@ -0,0 +1,127 @@
+/*
+ * CalibrationModelTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the affine transform of CalibrationModel against the original sequence:
+ * offsets, gains and then the calibration matrix built with 27 sin/cos calls.
+ */
+public class CalibrationModelTest {
+
+    private static final int MODELS = 1000;
+    private static final int VECTORS = 100;                     // The vectors checked for each model
+    private static final double MAX_ERROR = 1E-5;               // The max error of the calibrated vectors (in m/s^2)
+
+
+    /**
+     * The original calibration matrix of the InclinationEngine.
+     */
+    private static float[][] calibrationMatrix(float[] angles) {
+        float[][] calibrationMatrix = new float[3][3];
+        calibrationMatrix[0][0] = (float) (Math.cos(Math.toRadians(angles[2])) * Math.cos(Math.toRadians(angles[0])) + Math.sin(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[1])) * Math.sin(Math.toRadians(angles[0])));
+        calibrationMatrix[0][1] = (float) (Math.cos(Math.toRadians(angles[1])) * Math.sin(Math.toRadians(angles[0])));
+        calibrationMatrix[0][2] = (float) (-Math.sin(Math.toRadians(angles[2])) * Math.cos(Math.toRadians(angles[0])) + Math.cos(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[1])) * Math.sin(Math.toRadians(angles[0])));
+
+        calibrationMatrix[1][0] = (float) (-Math.cos(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[0])) + Math.sin(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[1])) * Math.cos(Math.toRadians(angles[0])));
+        calibrationMatrix[1][1] = (float) (Math.cos(Math.toRadians(angles[1])) * Math.cos(Math.toRadians(angles[0])));
+        calibrationMatrix[1][2] = (float) (Math.sin(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[0])) + Math.cos(Math.toRadians(angles[2])) * Math.sin(Math.toRadians(angles[1])) * Math.cos(Math.toRadians(angles[0])));
+
+        calibrationMatrix[2][0] = (float) (Math.sin(Math.toRadians(angles[2])) * Math.cos(Math.toRadians(angles[1])));
+        calibrationMatrix[2][1] = (float) (-Math.sin(Math.toRadians(angles[1])));
+        calibrationMatrix[2][2] = (float) (Math.cos(Math.toRadians(angles[2])) * Math.cos(Math.toRadians(angles[1])));
+        return calibrationMatrix;
+    }
+
+
+    private static float[] multiply(float[][] matrix, float[] v) {
+        return new float[] {
+                v[0] * matrix[0][0] + v[1] * matrix[0][1] + v[2] * matrix[0][2],
+                v[0] * matrix[1][0] + v[1] * matrix[1][1] + v[2] * matrix[1][2],
+                v[0] * matrix[2][0] + v[1] * matrix[2][1] + v[2] * matrix[2][2] };
+    }
+
+
+    private static float[] randomVector(Random random, float min, float max) {
+        return new float[] {
+                min + (max - min) * random.nextFloat(),
+                min + (max - min) * random.nextFloat(),
+                min + (max - min) * random.nextFloat() };
+    }
+
+
+    private static void assertVector(String message, float[] expected, float[] actual, double maxError) {
+        assertEquals(message + ", x", expected[0], actual[0], maxError);
+        assertEquals(message + ", y", expected[1], actual[1], maxError);
+        assertEquals(message + ", z", expected[2], actual[2], maxError);
+    }
+
+
+    @Test
+    public void modelMatchesTheOriginalSequence() {
+        Random random = new Random(1);
+        float[] result = new float[3];
+        for (int m = 0; m < MODELS; m++) {
+            float[] angles = randomVector(random, -180, 180);
+            float[] gains = randomVector(random, 0.9f, 1.1f);
+            float[] offsets = randomVector(random, -0.5f, 0.5f);
+            CalibrationModel calibrationModel = new CalibrationModel(angles, gains, offsets);
+            float[][] calibrationMatrix = calibrationMatrix(angles);
+
+            for (int n = 0; n < VECTORS; n++) {
+                float[] v = randomVector(random, -20, 20);
+                String message = "model " + m + ", vector " + n;
+
+                // The accelerometers: offsets, gains and then the matrix
+                float[] corrected = {
+                        (v[0] - offsets[0]) / gains[0],
+                        (v[1] - offsets[1]) / gains[1],
+                        (v[2] - offsets[2]) / gains[2] };
+                calibrationModel.apply(v[0], v[1], v[2], result);
+                assertVector("apply, " + message, multiply(calibrationMatrix, corrected), result, MAX_ERROR);
+
+                // The gyroscope and the rotation vector: the matrix alone
+                calibrationModel.applyRotation(v[0], v[1], v[2], result);
+                assertVector("applyRotation, " + message, multiply(calibrationMatrix, v), result, MAX_ERROR);
+            }
+        }
+    }
+
+
+    @Test
+    public void identityLeavesTheVectorsUnchanged() {
+        Random random = new Random(2);
+        float[] result = new float[3];
+        for (int n = 0; n < VECTORS; n++) {
+            float[] v = randomVector(random, -20, 20);
+            CalibrationModel.IDENTITY.apply(v[0], v[1], v[2], result);
+            assertVector("apply", v, result, 0);
+            CalibrationModel.IDENTITY.applyRotation(v[0], v[1], v[2], result);
+            assertVector("applyRotation", v, result, 0);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * ClinometerGeometryTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the primitives of ClinometerGeometry against the Canvas transformations
+ * that the ClinometerView applied before the extraction of the geometry.
+ * The transformations of the Canvas are replayed with AffineTransform, which has the same
+ * conventions of Canvas.rotate and Canvas.translate (y axis pointing down, clockwise degrees).
+ */
+public class ClinometerGeometryTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 2340;
+    private static final int TEXT_OFFSET = 26;
+    private static final float ARC_LABEL_HALF_WIDTH = 40;
+    private static final int STATES = 100000;                  // The number of random states checked
+    private static final double MAX_ERROR = 1E-3;               // The max error of the positions (in pixels)
+    private static final double MAX_ROTATION_ERROR = 1E-3;      // The max error of the rotations (in degrees)
+
+    private final ClinometerGeometry geometry = new ClinometerGeometry();
+    private final Random random = new Random(1);
+
+    private final float[] angles = new float[3];
+    private float angleXY;
+    private float angleXYZ;
+    private float angleTextLabels;
+    private float displayRotation;
+    private float refAxis;
+    private float refAngleXYZ;
+
+
+    @Before
+    public void setUp() {
+        geometry.setSize(WIDTH, HEIGHT, TEXT_OFFSET, ARC_LABEL_HALF_WIDTH);
+    }
+
+
+    /**
+     * Updates the geometry with a random state of the Clinometer.
+     */
+    private void updateRandomState() {
+        angles[0] = random.nextFloat() * 180 - 90;
+        angles[1] = random.nextFloat() * 180 - 90;
+        angles[2] = random.nextFloat() * 180 - 90;
+        angleXY = random.nextFloat() * 360;
+        angleXYZ = random.nextFloat() * 180;
+        angleTextLabels = random.nextFloat() * 360;
+        displayRotation = 90 * random.nextInt(4);
+        refAxis = random.nextFloat() * 360;
+        refAngleXYZ = random.nextFloat() * 10;
+        geometry.update(angles, angleXY, angleXYZ, angleTextLabels, false, displayRotation, refAxis,
+                refAngleXYZ, AngleFormat.UM_DEGREES);
+    }
+
+
+    /**
+     * Checks that the point (px, py) drawn on the transformed Canvas is at (x, y) on the screen.
+     */
+    private static void assertPoint(AffineTransform canvas, double px, double py, float x, float y) {
+        Point2D point = canvas.transform(new Point2D.Double(px, py), null);
+        assertEquals(point.getX(), x, MAX_ERROR);
+        assertEquals(point.getY(), y, MAX_ERROR);
+    }
+
+
+    /**
+     * Checks a label drawn at (px, py) on the transformed Canvas, rotated around (px, py)
+     * by textRotation, as the View did with canvas.rotate(textRotation, px, py).
+     */
+    private void assertLabel(AffineTransform canvas, double px, double py, double textRotation, int label) {
+        assertPoint(canvas, px, py, geometry.labelAnchor[label * 2], geometry.labelAnchor[label * 2 + 1]);
+        double rotation = Math.toDegrees(Math.atan2(canvas.getShearY(), canvas.getScaleX())) + textRotation;
+        double difference = ((rotation - geometry.labelRotation[label]) % 360 + 540) % 360 - 180;
+        assertEquals(0, difference, MAX_ROTATION_ERROR);
+    }
+
+
+    private AffineTransform rotation(double degrees) {
+        return AffineTransform.getRotateInstance(Math.toRadians(degrees), geometry.xc, geometry.yc);
+    }
+
+
+    @Test
+    public void gradientAndHorizonMatchTheRotatedCanvas() {
+        int xc = geometry.xc;
+        int yc = geometry.yc;
+        float r1 = geometry.r1;
+        for (int n = 0; n < STATES; n++) {
+            updateRandomState();
+
+            AffineTransform canvas = rotation(angleXY);
+            assertPoint(canvas, xc - geometry.min_xy / 2 + r1 / 2, yc,
+                    geometry.gradientAndHorizon[0], geometry.gradientAndHorizon[1]);
+            assertPoint(canvas, -geometry.diag2c, yc,
+                    geometry.gradientAndHorizon[2], geometry.gradientAndHorizon[3]);
+            canvas.rotate(Math.toRadians(90), xc, yc);
+            assertPoint(canvas, xc - (xc + yc), yc,
+                    geometry.gradientAndHorizon[4], geometry.gradientAndHorizon[5]);
+            assertPoint(canvas, xc + (xc + yc), yc,
+                    geometry.gradientAndHorizon[6], geometry.gradientAndHorizon[7]);
+
+            canvas = rotation(angleXY + 90);
+            int horizonY = yc + (int) ((90 - angleXYZ) * r1 / ClinometerGeometry.R1_VALUE);
+            assertPoint(canvas, (int) (xc - geometry.diag2c), horizonY,
+                    geometry.spiritHorizon[0], geometry.spiritHorizon[1]);
+            assertPoint(canvas, (int) (xc + geometry.diag2c), horizonY,
+                    geometry.spiritHorizon[2], geometry.spiritHorizon[3]);
+        }
+    }
+
+
+    @Test
+    public void labelsMatchTheRotatedCanvas() {
+        int xc = geometry.xc;
+        int yc = geometry.yc;
+        float r1 = geometry.r1;
+        for (int n = 0; n < STATES; n++) {
+            updateRandomState();
+
+            // Angle Z
+            assertLabel(rotation(angleXY + 180), (int) (geometry.min_xy - r1), yc,
+                    angleTextLabels - angleXY - 180, ClinometerGeometry.LABEL_ANGLE_Z);
+
+            // Arcs
+            float angle1Extension = (360 + ((angleXY + 90) % 180) - refAxis) % 180;
+            float angle1OffsetFromR = (((angleXY - refAxis + 360) % 360 < 270) && ((angleXY - refAxis + 360) % 360 >= 90))
+                    ? 0.1f : -0.1f;
+            AffineTransform canvas = rotation(refAxis + angle1Extension / 2);
+            assertLabel(canvas, (int) (xc + (r1 * (2.1f + angle1OffsetFromR)) + (TEXT_OFFSET * 1.5) + ARC_LABEL_HALF_WIDTH), yc,
+                    -angle1Extension / 2 - refAxis + angleTextLabels, ClinometerGeometry.LABEL_ARC_1);
+            canvas.rotate(Math.toRadians(90), xc, yc);
+            assertLabel(canvas, (int) (xc + (r1 * (2.1f - angle1OffsetFromR)) + (TEXT_OFFSET * 1.5) + ARC_LABEL_HALF_WIDTH), yc,
+                    -angle1Extension / 2 - 90 - refAxis + angleTextLabels, ClinometerGeometry.LABEL_ARC_2);
+
+            // Angle 2, translated along the rotated vertical axis
+            float angle2Rotation = (displayRotation == 0) ? angles[0]
+                    : (displayRotation == 90) ? -270 - angles[1]
+                    : (displayRotation == 180) ? 180 - angles[0]
+                    : 270 + angles[1];
+            canvas = rotation(angle2Rotation);
+            canvas.translate(0, angles[2] * r1 / ClinometerGeometry.R1_VALUE);
+            boolean isOnLeft = geometry.labelHorizontalAlignment[ClinometerGeometry.LABEL_ANGLE_2]
+                    == ClinometerGeometry.TEXT_ALIGNMENT_LEFT;
+            assertLabel(canvas, isOnLeft ? TEXT_OFFSET : WIDTH - TEXT_OFFSET, yc - TEXT_OFFSET, 0,
+                    ClinometerGeometry.LABEL_ANGLE_2);
+        }
+    }
+
+
+    @Test
+    public void bubbleAndCrossFollowTheAngles() {
+        angles[0] = 10;
+        angles[1] = -4;
+        angles[2] = 30;
+        geometry.update(angles, 0, 60, 0, false, 0, 0, 0, AngleFormat.UM_DEGREES);
+
+        float pxPerDegree = geometry.r1 / ClinometerGeometry.R1_VALUE;
+        assertEquals(geometry.xc + 10 * pxPerDegree, geometry.xs, MAX_ERROR);
+        assertEquals(geometry.yc + 4 * pxPerDegree, geometry.ys, MAX_ERROR);
+        assertEquals(geometry.ys, geometry.cross[1], 0);
+        assertEquals(geometry.xs, geometry.cross[4], 0);
+        assertTrue(geometry.isLabelVisible[ClinometerGeometry.LABEL_ANGLE_2]);
+    }
+
+
+    @Test
+    public void flatDeviceHidesTheSpiritLevelHorizonLabel() {
+        geometry.update(angles, 0, 0, 0, true, 0, 0, 0, AngleFormat.UM_DEGREES);
+        assertFalse(geometry.isLabelVisible[ClinometerGeometry.LABEL_ANGLE_2]);
+    }
+
+
+    @Test
+    public void arcsWiderThanARightAngleAreHiddenInPercent() {
+        // The arc between the reference axis and the horizon is 120°
+        geometry.update(angles, 30, 90, 0, false, 0, 0, 0, AngleFormat.UM_PERCENT);
+        assertFalse(geometry.isArcVisible[0]);
+        assertFalse(geometry.isLabelVisible[ClinometerGeometry.LABEL_ARC_1]);
+        assertTrue(geometry.isArcVisible[1]);
+
+        geometry.update(angles, 30, 90, 0, false, 0, 0, 0, AngleFormat.UM_DEGREES);
+        assertTrue(geometry.isArcVisible[0]);
+        assertTrue(geometry.isLabelVisible[ClinometerGeometry.LABEL_ARC_1]);
+    }
+}
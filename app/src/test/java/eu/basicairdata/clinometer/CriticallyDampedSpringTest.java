@@ -0,0 +1,146 @@
+/*
+ * CriticallyDampedSpringTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the motion of the CriticallyDampedSpring against its closed form.
+ */
+public class CriticallyDampedSpringTest {
+
+    private static final float W = CriticallyDampedSpring.DEFAULT_ANGULAR_FREQUENCY;
+    private static final long MS = 1000000;                     // One millisecond (in nanoseconds)
+
+
+    /**
+     * Returns the angle normalized in [0, 360).
+     */
+    private static float normalize(float angle) {
+        return ((angle % 360) + 360) % 360;
+    }
+
+
+    @Test
+    public void springRestsOnTheInitialValue() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(30, W);
+        assertEquals(30, spring.getValue(0), 0);
+        assertEquals(30, spring.getValue(1000 * MS), 0);
+        assertFalse(spring.isAnimating(0));
+    }
+
+
+    @Test
+    public void stepResponseFollowsTheClosedForm() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(0, W);
+        spring.setTargetValue(90, 1000 * MS);
+        float previous = 0;
+        for (long ms = 0; ms <= 1000; ms += 4) {
+            double t = ms * 1E-3;
+            float value = spring.getValue(1000 * MS + ms * MS);
+            assertEquals(90 - 90 * (1 + W * t) * Math.exp(-W * t), value, 1E-3);
+            // Critically damped: no overshoot
+            assertTrue(value >= previous);
+            assertTrue(value <= 90);
+            previous = value;
+        }
+    }
+
+
+    @Test
+    public void springSettlesWithinTheTolerance() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(0, W);
+        spring.setTargetValue(90, 0);
+        assertTrue(spring.isAnimating(0));
+        assertTrue(spring.isAnimating(300 * MS));
+
+        long settled = 0;
+        while (spring.isAnimating(settled)) settled += MS;
+        // About 514 ms for a 90° step
+        assertTrue("Settled in " + settled / MS + " ms", (settled > 400 * MS) && (settled < 600 * MS));
+        assertEquals(90, spring.getValue(settled), 0.001);
+        assertFalse(spring.isAnimating(settled + 1000 * MS));
+    }
+
+
+    @Test
+    public void retargetKeepsTheValueAndTheVelocity() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(0, W);
+        CriticallyDampedSpring reference = new CriticallyDampedSpring(0, W);
+        spring.setTargetValue(90, 0);
+        reference.setTargetValue(90, 0);
+        spring.setTargetValue(-20, 50 * MS);
+
+        assertEquals(reference.getValue(50 * MS), spring.getValue(50 * MS), 1E-4);
+        // The same velocity just after the change of the target
+        float velocity = (spring.getValue(50 * MS + 10000) - spring.getValue(50 * MS)) / 1E-5f;
+        float referenceVelocity = (reference.getValue(50 * MS + 10000) - reference.getValue(50 * MS)) / 1E-5f;
+        assertEquals(referenceVelocity, velocity, Math.abs(referenceVelocity) * 0.01);
+
+        long settled = 50 * MS;
+        while (spring.isAnimating(settled)) settled += MS;
+        assertEquals(-20, spring.getValue(settled), 0.001);
+    }
+
+
+    @Test
+    public void springTakesTheShortestWayAroundTheCircle() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(170, W);
+        spring.setTargetValue(-170, 0);
+        for (long ms = 0; ms <= 1000; ms += 4) {
+            float value = normalize(spring.getValue(ms * MS));
+            // Across 180°, never through 0°
+            assertTrue("Value " + value + " at " + ms + " ms", (value >= 170 - 1E-3) && (value <= 190 + 1E-3));
+        }
+        assertEquals(190, normalize(spring.getValue(1000 * MS)), 0.001);
+    }
+
+
+    @Test
+    public void valueStaysWithinOneTurn() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(0, W);
+        float target = 0;
+        for (int i = 1; i <= 20; i++) {
+            // Always turning in the same direction
+            target = (target + 100) % 360;
+            if (target > 180) target -= 360;
+            spring.setTargetValue(target, i * 1000 * MS);
+            float value = spring.getValue(i * 1000 * MS + 1000 * MS);
+            assertTrue((value > -360) && (value < 360));
+            assertEquals(normalize(target), normalize(value), 0.001);
+        }
+    }
+
+
+    @Test
+    public void setValueStopsTheSpring() {
+        CriticallyDampedSpring spring = new CriticallyDampedSpring(0, W);
+        spring.setTargetValue(90, 0);
+        spring.setValue(45);
+        assertEquals(45, spring.getValue(10 * MS), 0);
+        assertFalse(spring.isAnimating(10 * MS));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * FastTrigTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the accuracy of FastTrig.atan2 against Math.atan2, and of the angles of the
+ * InclinationEngine against a double precision reference on the whole sphere.
+ */
+public class FastTrigTest {
+
+    private static final double ATAN2_MAX_ERROR = 4E-7;         // The stated error bound of FastTrig.atan2 (in radians)
+    private static final double ANGLE_MAX_ERROR = 2E-5;         // The stated error bound of the angles (in degrees)
+    private static final double SWEEP_STEP = 0.5;               // The step of the sweep of the sphere (in degrees)
+
+
+    @Test
+    public void atan2MatchesMathAtan2OnTheWholeCircle() {
+        float[] radii = {1E-3f, 1, 9.80665f, 1E3f};
+        double maxError = 0;
+        for (float radius : radii) {
+            for (int i = 0; i <= 1000000; i++) {
+                double a = -Math.PI + 2 * Math.PI * i / 1000000;
+                float x = (float) (radius * Math.cos(a));
+                float y = (float) (radius * Math.sin(a));
+                double error = Math.abs(FastTrig.atan2(y, x) - Math.atan2(y, x));
+                // The branch cut: -PI and PI are the same angle
+                maxError = Math.max(maxError, Math.min(error, Math.abs(error - 2 * Math.PI)));
+            }
+        }
+        assertTrue("Max error " + maxError + " rad", maxError < ATAN2_MAX_ERROR);
+    }
+
+
+    @Test
+    public void atan2HandlesTheAxes() {
+        assertEquals(0, FastTrig.atan2(0, 0), 0);
+        assertEquals(0, FastTrig.atan2(0, 1), 0);
+        assertEquals(Math.PI / 2, FastTrig.atan2(1, 0), ATAN2_MAX_ERROR);
+        assertEquals(-Math.PI / 2, FastTrig.atan2(-1, 0), ATAN2_MAX_ERROR);
+        assertEquals(Math.PI, FastTrig.atan2(0, -1), ATAN2_MAX_ERROR);
+        assertEquals(45, FastTrig.atan2Degrees(2.5f, 2.5f), 2E-5);
+    }
+
+
+    @Test
+    public void engineAnglesMatchTheReferenceOnTheWholeSphere() {
+        double maxError = 0;
+        for (double latitude = -90; latitude <= 90; latitude += SWEEP_STEP) {
+            for (double longitude = -180; longitude < 180; longitude += SWEEP_STEP) {
+                double lat = Math.toRadians(latitude);
+                double lon = Math.toRadians(longitude);
+                float g0 = (float) (9.80665 * Math.cos(lat) * Math.cos(lon));
+                float g1 = (float) (9.80665 * Math.cos(lat) * Math.sin(lon));
+                float g2 = (float) (9.80665 * Math.sin(lat));
+
+                // The first reading is taken as it is, without filtering
+                InclinationEngine engine = new InclinationEngine();
+                engine.update(1, g0, g1, g2);
+
+                double[] reference = referenceAngles(g0, g1, g2);
+                maxError = Math.max(maxError, Math.abs(engine.getAngles()[0] - reference[0]));
+                maxError = Math.max(maxError, Math.abs(engine.getAngles()[1] - reference[1]));
+                maxError = Math.max(maxError, Math.abs(engine.getAngles()[2] - reference[2]));
+                maxError = Math.max(maxError, Math.abs(engine.getAngleXYZ() - reference[4]));
+                double errorXY = Math.abs(engine.getAngleXY() - reference[3]);
+                maxError = Math.max(maxError, Math.min(errorXY, Math.abs(errorXY - 360)));
+            }
+        }
+        assertTrue("Max error " + maxError + " degrees", maxError < ANGLE_MAX_ERROR);
+    }
+
+
+    /**
+     * Returns the angles of the gravity vector in double precision:
+     * angle[0], angle[1], angle[2], angleXY, angleXYZ.
+     */
+    private static double[] referenceAngles(double g0, double g1, double g2) {
+        double gravityXY = Math.sqrt(g0 * g0 + g1 * g1);
+        double gravityXYZ = Math.sqrt(g0 * g0 + g1 * g1 + g2 * g2);
+        double angleXY = 0;
+        double angleXYZ = 0;
+        if (gravityXY > 0) {
+            angleXY = -Math.toDegrees(Math.atan2(g1, g0));
+            if (angleXY <= 0) angleXY += 360;
+            angleXYZ = Math.toDegrees(Math.acos(g2 / gravityXYZ));
+        }
+        return new double[] {
+                Math.toDegrees(Math.asin(g0 / gravityXYZ)),
+                Math.toDegrees(Math.asin(g1 / gravityXYZ)),
+                Math.toDegrees(Math.asin(g2 / gravityXYZ)),
+                angleXY,
+                angleXYZ };
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * InclinationEngineTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the angles of the InclinationEngine on simulated sensors, with and without
+ * the Gyroscope Fusion.
+ * The device rotates around its X axis by the angle phi, so the gravity seen by the device
+ * is (0, G sin(phi), G cos(phi)) and angle[1] is phi.
+ */
+public class InclinationEngineTest {
+
+    private static final float G = 9.80665f;
+    private static final long GYROSCOPE_INTERVAL = 5000000;     // 200 Hz (in nanoseconds)
+    private static final float ROTATION_SPEED = 1;              // The angular velocity of the rotation (in rad/s)
+    private static final float GYROSCOPE_BIAS = 0.01f;          // The bias of the simulated gyroscope (in rad/s)
+
+
+    /**
+     * Simulates the device still at the angle phi for the given time, and returns
+     * the last error of angle[1] (in degrees).
+     */
+    private static float hold(InclinationEngine engine, long[] time, double phi, double seconds) {
+        float error = 0;
+        for (int i = 0; i < seconds * 1E9 / GYROSCOPE_INTERVAL; i++) {
+            error = step(engine, time, phi, 0);
+        }
+        return error;
+    }
+
+
+    /**
+     * Simulates a rotation at ROTATION_SPEED from the angle phi for the given time,
+     * and returns the maximum error of angle[1] (in degrees).
+     */
+    private static float rotate(InclinationEngine engine, long[] time, double phi, double seconds) {
+        float maxError = 0;
+        for (int i = 0; i < seconds * 1E9 / GYROSCOPE_INTERVAL; i++) {
+            phi += ROTATION_SPEED * GYROSCOPE_INTERVAL * 1E-9;
+            maxError = Math.max(maxError, Math.abs(step(engine, time, phi, ROTATION_SPEED)));
+        }
+        return maxError;
+    }
+
+
+    /**
+     * Feeds one gyroscope reading and, every other step, one accelerometer reading (100 Hz).
+     * The gyroscope readings are offset by GYROSCOPE_BIAS on all the axes.
+     *
+     * @return The error of angle[1] after the readings (in degrees)
+     */
+    private static float step(InclinationEngine engine, long[] time, double phi, float omega) {
+        time[0] += GYROSCOPE_INTERVAL;
+        engine.updateGyroscope(time[0], omega + GYROSCOPE_BIAS, GYROSCOPE_BIAS, GYROSCOPE_BIAS);
+        if ((time[0] / GYROSCOPE_INTERVAL) % 2 == 0) {
+            engine.update(time[0], 0, (float) (G * Math.sin(phi)), (float) (G * Math.cos(phi)));
+        }
+        return engine.getAngles()[1] - (float) Math.toDegrees(phi);
+    }
+
+
+    @Test
+    public void accelerometerAnglesMatchTheGravityVector() {
+        InclinationEngine engine = new InclinationEngine();
+        float gx = 3, gy = -4, gz = 8.3f;
+        for (int i = 1; i <= 100; i++) engine.update(i * 10000000L, gx, gy, gz);
+
+        assertEquals(Math.toDegrees(Math.atan2(gx, Math.hypot(gy, gz))), engine.getAngles()[0], 1E-4);
+        assertEquals(Math.toDegrees(Math.atan2(gy, Math.hypot(gx, gz))), engine.getAngles()[1], 1E-4);
+        assertEquals(Math.toDegrees(Math.atan2(gz, Math.hypot(gx, gy))), engine.getAngles()[2], 1E-4);
+        assertEquals(Math.toDegrees(Math.atan2(Math.hypot(gx, gy), gz)), engine.getAngleXYZ(), 1E-4);
+        // Measured clockwise from the X axis, gy < 0 gives an angle in the first quadrant
+        assertEquals(-Math.toDegrees(Math.atan2(gy, gx)), engine.getAngleXY(), 1E-4);
+        assertFalse(engine.isGyroscopeFusionActive());
+    }
+
+
+    @Test
+    public void autoLockWaitsForASlowDriftToStop() {
+        InclinationEngine engine = new InclinationEngine();
+        float tolerance = 0.5f;
+        double phi = Math.toRadians(20);
+        long time = 0;
+        // 0.3 degrees/s: 0.6 degrees in the 2 s window, 95% of them within 0.34 degrees from their mean
+        for (int i = 0; i < 300; i++) {
+            time += 10000000L;
+            phi += Math.toRadians(0.003);
+            engine.update(time, 0, (float) (G * Math.sin(phi)), (float) (G * Math.cos(phi)));
+        }
+        assertFalse(engine.isAutoLockAllowed(tolerance, false));
+        MeanVariance3.Statistics statistics = engine.getAngleAutoLockStatistics();
+        assertTrue(statistics.loaded);
+        for (int axis = 0; axis < 3; axis++) assertTrue(statistics.spread95[axis] < tolerance);
+
+        for (int i = 0; i < 300; i++) {
+            time += 10000000L;
+            engine.update(time, 0, (float) (G * Math.sin(phi)), (float) (G * Math.cos(phi)));
+        }
+        assertTrue(engine.isAutoLockAllowed(tolerance, false));
+    }
+
+
+    @Test
+    public void fusionStartsWithTheFirstGyroscopeReading() {
+        InclinationEngine engine = new InclinationEngine();
+        assertFalse(engine.updateGyroscope(10000000L, 0, 0, 0));
+        assertFalse(engine.isGyroscopeFusionActive());
+
+        engine.setGyroscopeFusion(true);
+        engine.update(10000000L, 0, 0, G);
+        assertFalse(engine.isGyroscopeFusionActive());
+        engine.updateGyroscope(15000000L, 0, 0, 0);
+        assertTrue(engine.isGyroscopeFusionActive());
+
+        engine.setGyroscopeFusion(false);
+        assertFalse(engine.isGyroscopeFusionActive());
+    }
+
+
+    @Test
+    public void fusionTracksARotationBetterThanTheAccelerometers() {
+        long[] time = {0};
+        InclinationEngine accelerometerEngine = new InclinationEngine();
+        hold(accelerometerEngine, time, 0, 5);
+        float accelerometerError = rotate(accelerometerEngine, time, 0, 1);
+
+        time[0] = 0;
+        InclinationEngine fusionEngine = new InclinationEngine();
+        fusionEngine.setGyroscopeFusion(true);
+        hold(fusionEngine, time, 0, 60);
+        float fusionError = rotate(fusionEngine, time, 0, 1);
+
+        assertTrue("Accelerometer error " + accelerometerError, accelerometerError > 10);
+        assertTrue("Fusion error " + fusionError, fusionError < 0.1f);
+    }
+
+
+    @Test
+    public void fusionEstimatesTheGyroscopeBias() {
+        long[] time = {0};
+        InclinationEngine engine = new InclinationEngine();
+        engine.setGyroscopeFusion(true);
+        // Without the estimation of the bias the steady error would be about
+        // GYROSCOPE_BIAS * 0.5 s = 0.29 degrees
+        float initialError = Math.abs(hold(engine, time, 0.5, 2));
+        float steadyError = Math.abs(hold(engine, time, 0.5, 100));
+
+        assertTrue("Initial error " + initialError, initialError > 0.1f);
+        assertTrue("Steady error " + steadyError, steadyError < 0.02f);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MeanVariance3Test - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the interleaved MeanVariance3 against three MeanVariance fed with the same samples,
+ * across several buffer cycles, so across the recalculations of the running sums when the cursor wraps.
+ */
+public class MeanVariance3Test {
+
+    private static final int[] SIZES = {1, 2, 16, 200};
+    private static final int CYCLES = 5;                        // The number of buffer cycles loaded
+
+
+    /**
+     * Checks that two statistics match, with the float resolution of the given scale.
+     */
+    private static void assertStatistic(String message, float expected, float actual, double scale) {
+        assertEquals(message, expected, actual, 1E-6 * scale);
+    }
+
+
+    private static void check(int size, Random random) {
+        MeanVariance3 meanVariance3 = new MeanVariance3(size);
+        MeanVariance[] meanVariance = {new MeanVariance(size), new MeanVariance(size), new MeanVariance(size)};
+        MeanVariance3.Statistics statistics = new MeanVariance3.Statistics();
+        float[] offset = {0, -9.81f, 1000};                     // Exercises the shift of the running sums
+        int[] windows = {1, size / 2, size - 1};
+
+        for (int loaded = 1; loaded <= size * CYCLES + size / 2; loaded++) {
+            float[] sample = new float[3];
+            for (int axis = 0; axis < 3; axis++) {
+                sample[axis] = offset[axis] + (float) random.nextGaussian();
+                meanVariance[axis].loadSample(sample[axis]);
+            }
+            meanVariance3.loadSample(sample[0], sample[1], sample[2]);
+            int nsamples = Math.min(size, loaded);
+
+            meanVariance3.getStatistics(statistics);
+            assertEquals(meanVariance[0].getLoaded(), meanVariance3.getLoaded());
+            assertEquals(meanVariance[0].getLoaded(), statistics.loaded);
+            for (int axis = 0; axis < 3; axis++) {
+                String message = "size " + size + ", sample " + loaded + ", axis " + axis;
+                double scale = Math.abs(offset[axis]) + 1;
+                assertStatistic("mean, " + message, meanVariance[axis].getMeanValue(), meanVariance3.getMeanValue(axis), scale);
+                assertStatistic("mean, " + message, meanVariance[axis].getMeanValue(), statistics.meanValue[axis], scale);
+                assertStatistic("std deviation, " + message,
+                        meanVariance[axis].getStdDeviation(), statistics.stdDeviation[axis], scale);
+                // The band of the samples of the whole buffer
+                assertStatistic("spread95, " + message,
+                        meanVariance[axis].getTolerance(), statistics.spread95[axis], scale);
+            }
+
+            for (int n : windows) {
+                if ((n <= 0) || (n >= nsamples)) continue;
+                meanVariance3.getStatistics(n, statistics);
+                assertEquals(loaded >= n, statistics.loaded);
+                for (int axis = 0; axis < 3; axis++) {
+                    String message = "last " + n + ", size " + size + ", sample " + loaded + ", axis " + axis;
+                    double scale = Math.abs(offset[axis]) + 1;
+                    assertStatistic("mean, " + message,
+                            meanVariance[axis].getMeanValue(n), statistics.meanValue[axis], scale);
+                    assertStatistic("std deviation, " + message,
+                            meanVariance[axis].getStdDeviation(n), statistics.stdDeviation[axis], scale);
+                    // spread95 is the band of the samples, getTolerance(n) is the uncertainty of their mean
+                    assertStatistic("spread95, " + message,
+                            meanVariance[axis].getTolerance(n) * (float) Math.sqrt(n), statistics.spread95[axis], scale);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void statisticsMatchThreeMeanVariance() {
+        Random random = new Random(1);
+        for (int size : SIZES) check(size, random);
+    }
+
+
+    @Test
+    public void resetClearsTheStatistics() {
+        MeanVariance3 meanVariance3 = new MeanVariance3(16);
+        MeanVariance3.Statistics statistics = new MeanVariance3.Statistics();
+        for (int i = 0; i < 20; i++) meanVariance3.loadSample(i, 2 * i, 3 * i);
+        meanVariance3.reset();
+        meanVariance3.getStatistics(statistics);
+
+        assertEquals(0, meanVariance3.getMeanValue(0), 0);
+        assertEquals(0, statistics.meanValue[2], 0);
+        assertEquals(0, statistics.spread95[1], 0);
+        assertEquals(false, statistics.loaded);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * MeanVarianceTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the incremental statistics of MeanVariance against a full rescan of the last samples.
+ */
+public class MeanVarianceTest {
+
+    private static final int[] SIZES = {1, 2, 16, 200, 1000};
+
+
+    /**
+     * Returns {mean, population variance} of the last n samples of the history, rescanning them.
+     */
+    private static double[] rescan(float[] history, int loaded, int n) {
+        double mean = 0;
+        for (int i = loaded - n; i < loaded; i++) mean += history[i];
+        mean /= n;
+        double variance = 0;
+        for (int i = loaded - n; i < loaded; i++) variance += (history[i] - mean) * (history[i] - mean);
+        variance /= n;
+        return new double[] {mean, variance};
+    }
+
+
+    /**
+     * Loads the history into a MeanVariance of the given size, checking all the statistics after each sample.
+     */
+    private static void check(int size, float[] history) {
+        MeanVariance meanVariance = new MeanVariance(size);
+        int[] windows = {size / 2, size - 1, 1};
+
+        for (int loaded = 1; loaded <= history.length; loaded++) {
+            meanVariance.loadSample(history[loaded - 1]);
+            int nsamples = Math.min(size, loaded);
+
+            double[] expected = rescan(history, loaded, nsamples);
+            // The mean is compared with the float resolution of the samples,
+            // the dispersion with a relative error, much smaller than any drift
+            double scale = Math.abs(expected[0]) + 1;
+            assertEquals("mean, size " + size + ", sample " + loaded,
+                    expected[0], meanVariance.getMeanValue(), 1E-6 * scale);
+            assertEquals("variance, size " + size + ", sample " + loaded,
+                    expected[1], meanVariance.getVariance(), 1E-4 * expected[1] + 1E-12 * scale * scale);
+            assertEquals("tolerance, size " + size + ", sample " + loaded,
+                    1.96 * Math.sqrt(expected[1]), meanVariance.getTolerance(), 1E-4 * Math.sqrt(expected[1]) + 1E-6 * scale);
+
+            for (int n : windows) {
+                if ((n <= 0) || (n >= nsamples)) continue;
+                double[] tail = rescan(history, loaded, n);
+                assertEquals("mean of last " + n + ", size " + size + ", sample " + loaded,
+                        tail[0], meanVariance.getMeanValue(n), 1E-6 * scale);
+                assertEquals("variance of last " + n + ", size " + size + ", sample " + loaded,
+                        tail[1], meanVariance.getVariance(n), 1E-4 * tail[1] + 1E-12 * scale * scale);
+                assertEquals("std deviation of last " + n + ", size " + size + ", sample " + loaded,
+                        Math.sqrt(tail[1]), meanVariance.getStdDeviation(n), 1E-4 * Math.sqrt(tail[1]) + 1E-6 * scale);
+                assertEquals("tolerance of last " + n + ", size " + size + ", sample " + loaded,
+                        1.96 * Math.sqrt(tail[1] / n), meanVariance.getTolerance(n), 1E-4 * Math.sqrt(tail[1] / n) + 1E-6 * scale);
+            }
+        }
+    }
+
+
+    @Test
+    public void statisticsMatchTheRescanAcrossTheWraparound() {
+        Random random = new Random(1);
+        for (int size : SIZES) {
+            // Three buffer cycles, plus a partial one
+            float[] history = new float[size * 3 + size / 3 + 1];
+            for (int i = 0; i < history.length; i++) history[i] = (float) (9.81 + random.nextGaussian() * 0.05);
+            check(size, history);
+        }
+    }
+
+
+    @Test
+    public void statisticsDoNotDriftOverManyBufferCycles() {
+        // A large offset with a small noise is the worst case for the cancellation errors
+        Random random = new Random(2);
+        int size = 16;
+        float[] history = new float[size * 5000];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = (float) (1000 + random.nextGaussian() * 0.01 + (i / 10000) * 100);
+        }
+        check(size, history);
+    }
+
+
+    @Test
+    public void tailGettersReturnZeroWhenTheWindowIsNotSmallerThanTheLoadedSamples() {
+        MeanVariance meanVariance = new MeanVariance(16);
+        for (int i = 0; i < 8; i++) meanVariance.loadSample(i);
+        assertEquals(0, meanVariance.getMeanValue(8), 0);
+        assertEquals(0, meanVariance.getTolerance(10), 0);
+        assertEquals(meanVariance.getMeanValue(), meanVariance.getMeanValue(0), 0);
+        assertEquals(meanVariance.getTolerance(), meanVariance.getTolerance(0), 0);
+    }
+
+
+    @Test
+    public void resetClearsTheStatistics() {
+        MeanVariance meanVariance = new MeanVariance(16);
+        for (int i = 0; i < 40; i++) meanVariance.loadSample(i);
+        meanVariance.reset();
+        assertEquals(0, meanVariance.getMeanValue(), 0);
+        assertEquals(0, meanVariance.getTolerance(), 0);
+
+        float[] history = {3, 5, 7};
+        for (float sample : history) meanVariance.loadSample(sample);
+        assertEquals(5, meanVariance.getMeanValue(), 1E-6);
+        assertEquals(8 / 3.0, meanVariance.getVariance(), 1E-5);
+    }
+}
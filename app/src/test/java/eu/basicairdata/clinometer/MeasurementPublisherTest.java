@@ -0,0 +1,134 @@
+/*
+ * MeasurementPublisherTest - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the triple buffer of MeasurementPublisher, with one writer and one reader.
+ */
+public class MeasurementPublisherTest {
+
+    private static final int STRESS_SAMPLES = 2000000;
+
+
+    /**
+     * Writes a snapshot whose fields are all derived from the given sequence number.
+     */
+    private static void write(MeasurementSnapshot snapshot, long sequence) {
+        snapshot.timestamp = sequence;
+        snapshot.angle[0] = sequence;
+        snapshot.angle[1] = sequence + 1;
+        snapshot.angle[2] = sequence + 2;
+        snapshot.angleXY = sequence + 3;
+    }
+
+
+    /**
+     * Returns true if all the fields of the snapshot were written together,
+     * or if the snapshot has not been written yet.
+     */
+    private static boolean isConsistent(MeasurementSnapshot snapshot) {
+        if (snapshot.timestamp == 0) return (snapshot.angle[0] == 0) && (snapshot.angleXY == 0);
+        float sequence = snapshot.timestamp;      // The sequences are exact in float, up to 2^24
+        return (snapshot.angle[0] == sequence) && (snapshot.angle[1] == sequence + 1)
+                && (snapshot.angle[2] == sequence + 2) && (snapshot.angleXY == sequence + 3);
+    }
+
+
+    @Test
+    public void acquireReturnsTheLastPublishedSnapshot() {
+        MeasurementPublisher publisher = new MeasurementPublisher();
+        assertFalse(publisher.hasNewSnapshot());
+
+        write(publisher.getBackSnapshot(), 1);
+        publisher.publish();
+        write(publisher.getBackSnapshot(), 2);
+        publisher.publish();
+        assertTrue(publisher.hasNewSnapshot());
+
+        MeasurementSnapshot snapshot = publisher.acquire();
+        assertEquals(2, snapshot.timestamp);
+        assertFalse(publisher.hasNewSnapshot());
+
+        // Without new publications the reader keeps the same snapshot
+        assertSame(snapshot, publisher.acquire());
+    }
+
+
+    @Test
+    public void writerNeverFillsTheSnapshotHeldByTheReader() {
+        MeasurementPublisher publisher = new MeasurementPublisher();
+        for (int i = 1; i < 100; i++) {
+            write(publisher.getBackSnapshot(), i);
+            publisher.publish();
+            MeasurementSnapshot front = publisher.acquire();
+            for (int j = 0; j < 3; j++) {
+                assertNotSame(front, publisher.getBackSnapshot());
+                write(publisher.getBackSnapshot(), -1);
+                publisher.publish();
+            }
+            assertEquals(i, front.timestamp);
+            publisher.acquire();
+        }
+    }
+
+
+    @Test
+    public void readerNeverSeesTornOrOlderSnapshots() throws InterruptedException {
+        final MeasurementPublisher publisher = new MeasurementPublisher();
+        final AtomicBoolean isWriting = new AtomicBoolean(true);
+
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (long sequence = 1; sequence <= STRESS_SAMPLES; sequence++) {
+                    write(publisher.getBackSnapshot(), sequence);
+                    publisher.publish();
+                }
+                isWriting.set(false);
+            }
+        });
+        writer.start();
+
+        long lastSequence = 0;
+        boolean isLastCheck;
+        do {
+            isLastCheck = !isWriting.get();
+            MeasurementSnapshot snapshot = publisher.acquire();
+            assertTrue("torn snapshot " + snapshot.timestamp, isConsistent(snapshot));
+            assertTrue("snapshot " + snapshot.timestamp + " after " + lastSequence, snapshot.timestamp >= lastSequence);
+            lastSequence = snapshot.timestamp;
+        } while (!isLastCheck);
+        writer.join();
+
+        assertEquals(STRESS_SAMPLES, lastSequence);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * AngleFormatBenchmark - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The formatting of the angles shown by the Clinometer, for every unit of measurement.
+ */
+@State(Scope.Thread)
+public class AngleFormatBenchmark {
+
+    @Param({"" + AngleFormat.UM_DEGREES, "" + AngleFormat.UM_RADIANS,
+            "" + AngleFormat.UM_PERCENT, "" + AngleFormat.UM_FRACTIONAL})
+    public int unitOfMeasurement;
+
+    private final AngleFormat angleFormat = new AngleFormat("\u00B0", "%");
+    private final char[] buffer = new char[AngleFormat.BUFFER_SIZE];
+    private float angle = -90;
+
+
+    private float nextAngle() {
+        angle += 0.37f;
+        if (angle > 90) angle -= 180;
+        return angle;
+    }
+
+
+    @Benchmark
+    public String format() {
+        return angleFormat.format(nextAngle(), unitOfMeasurement);
+    }
+
+
+    @Benchmark
+    public char[] formatIntoBuffer() {
+        angleFormat.format(nextAngle(), unitOfMeasurement, buffer, 0);
+        return buffer;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * ClinometerGeometryBenchmark - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The computation of the primitives of a frame of the ClinometerView, on a 1080x2340 screen.
+ */
+@State(Scope.Thread)
+public class ClinometerGeometryBenchmark {
+
+    private final ClinometerGeometry geometry = new ClinometerGeometry();
+    private final float[] angles = {0, 0, 0};
+    private int frame = 0;
+
+    {
+        geometry.setSize(1080, 2340, 26, 40);
+    }
+
+
+    @Benchmark
+    public float update() {
+        frame++;
+        angles[0] = (frame % 180) - 90;
+        angles[1] = ((frame * 7) % 180) - 90;
+        angles[2] = ((frame * 13) % 180) - 90;
+        geometry.update(angles, frame % 360, (frame * 3) % 180, 0, false, 0, 90, 0, AngleFormat.UM_DEGREES);
+        return geometry.labelAnchor[0];
+    }
+}
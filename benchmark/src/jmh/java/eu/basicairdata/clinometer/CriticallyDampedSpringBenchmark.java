@@ -0,0 +1,47 @@
+/*
+ * CriticallyDampedSpringBenchmark - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The evaluation of the spring used by the SpringAnimators of the UI, at 120 Hz.
+ */
+@State(Scope.Thread)
+public class CriticallyDampedSpringBenchmark {
+
+    private static final long FRAME_INTERVAL = 8333333;    // 120 Hz (in nanoseconds)
+
+    private final CriticallyDampedSpring spring = new CriticallyDampedSpring(0.0f, CriticallyDampedSpring.DEFAULT_ANGULAR_FREQUENCY);
+    private long frameTimeNanos = 0;
+    private int frame = 0;
+
+
+    @Benchmark
+    public float doAnimationFrame() {
+        frameTimeNanos += FRAME_INTERVAL;
+        if ((++frame & 63) == 0) spring.setTargetValue((frame >> 6) % 2 == 0 ? 350.0f : 10.0f, frameTimeNanos);
+        return spring.isAnimating(frameTimeNanos) ? spring.getValue(frameTimeNanos) : 0;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * InclinationEngineBenchmark - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The math path of ClinometerActivity.onSensorChanged:
+ * one accelerometer reading processed by the InclinationEngine and published to the UI thread.
+ * The angles of a gravity vector are also measured alone, with FastTrig as in InclinationEngine
+ * and with the double precision asin/acos code that it replaced.
+ */
+@State(Scope.Thread)
+public class InclinationEngineBenchmark {
+
+    private static final long SAMPLE_INTERVAL = 10000000;   // 100 Hz (in nanoseconds)
+    private static final int SPHERE_POINTS = 4096;          // A power of 2
+
+    private InclinationEngine inclinationEngine;
+    private InclinationEngine fusionEngine;
+    private final MeasurementPublisher measurementPublisher = new MeasurementPublisher();
+    private long timestamp = 0;
+    private int step = 0;
+
+    private final float[][] sphere = new float[SPHERE_POINTS][3];     // Gravity vectors spread over the whole sphere
+    private final float[] angles = new float[5];                      // angle[0..2], angleXY, angleXYZ
+
+
+    @Setup
+    public void setup() {
+        inclinationEngine = new InclinationEngine();
+        inclinationEngine.setCalibrationModel(new CalibrationModel(
+                new float[] {0.01f, -0.02f, 0.005f},
+                new float[] {1.01f, 0.99f, 1.02f},
+                new float[] {0.05f, -0.03f, 0.1f}));
+        fusionEngine = new InclinationEngine();
+        fusionEngine.setGyroscopeFusion(true);
+        for (int i = 0; i < SPHERE_POINTS; i++) {
+            // A spiral from pole to pole
+            double lat = Math.asin(2.0 * (i + 0.5) / SPHERE_POINTS - 1);
+            double lon = i * 2.399963;
+            sphere[i][0] = (float) (9.80665 * Math.cos(lat) * Math.cos(lon));
+            sphere[i][1] = (float) (9.80665 * Math.cos(lat) * Math.sin(lon));
+            sphere[i][2] = (float) (9.80665 * Math.sin(lat));
+        }
+    }
+
+
+    @Benchmark
+    public boolean update() {
+        timestamp += SAMPLE_INTERVAL;
+        step++;
+        // A slowly tilting device, with some noise on the readings
+        float noise = ((step * 7919) % 101 - 50) * 0.0004f;
+        float a = (step % 3600) * 0.001745f;
+        boolean rotated = inclinationEngine.update(timestamp,
+                (float) Math.sin(a) * 9.8f + noise, 0.3f - noise, (float) Math.cos(a) * 9.8f);
+        measurementPublisher.getBackSnapshot().set(inclinationEngine);
+        measurementPublisher.publish();
+        return rotated;
+    }
+
+
+    @Benchmark
+    public boolean updateGyroscopeFusion() {
+        timestamp += SAMPLE_INTERVAL / 2;
+        step++;
+        if ((step & 1) == 0) return fusionEngine.updateGyroscope(timestamp, 0.01f, -0.02f, 0.1f);
+        return fusionEngine.update(timestamp, 0.5f, 0.3f, 9.78f);
+    }
+
+
+    @Benchmark
+    public float[] calculateAngles() {
+        float[] g = sphere[step++ & (SPHERE_POINTS - 1)];
+        float g0 = g[0], g1 = g[1], g2 = g[2];
+        float g0Squared = g0 * g0;
+        float g1Squared = g1 * g1;
+        float g2Squared = g2 * g2;
+        float gravityXY = (float) Math.sqrt(g0Squared + g1Squared);
+
+        angles[3] = 0;
+        angles[4] = 0;
+        if (gravityXY > 0) {
+            float theta = FastTrig.atan2Degrees(g1, g0);
+            angles[3] = (theta < 0) ? -theta : 360 - theta;
+            angles[4] = FastTrig.atan2Degrees(gravityXY, g2);
+        }
+        angles[0] = FastTrig.atan2Degrees(g0, (float) Math.sqrt(g1Squared + g2Squared));
+        angles[1] = FastTrig.atan2Degrees(g1, (float) Math.sqrt(g0Squared + g2Squared));
+        angles[2] = FastTrig.atan2Degrees(g2, gravityXY);
+        return angles;
+    }
+
+
+    /**
+     * The baseline: the angles computed in double precision with asin and acos,
+     * as before FastTrig.
+     */
+    @Benchmark
+    public float[] calculateAnglesDoublePrecision() {
+        float[] g = sphere[step++ & (SPHERE_POINTS - 1)];
+        float g0 = g[0], g1 = g[1], g2 = g[2];
+        float gravityXY = (float) Math.sqrt(g0 * g0 + g1 * g1);
+        float gravityXYZ = (float) Math.sqrt(gravityXY * gravityXY + g2 * g2);
+
+        angles[3] = 0;
+        angles[4] = 0;
+        if (gravityXY > 0) {
+            if (g0 >= 0) {
+                if (g1 < 0)
+                    angles[3] = (float) Math.toDegrees(-Math.asin(g1 / gravityXY));
+                else
+                    angles[3] = (float) Math.toDegrees(2 * Math.PI - Math.asin(g1 / gravityXY));
+            } else
+                angles[3] = (float) Math.toDegrees(Math.PI + Math.asin(g1 / gravityXY));
+            angles[4] = (float) Math.toDegrees(Math.acos(g2 / gravityXYZ));
+        }
+        angles[0] = (float) (180 / Math.PI * Math.asin((g0 / Math.max(gravityXYZ, 0.00001f))));
+        angles[1] = (float) (180 / Math.PI * Math.asin((g1 / Math.max(gravityXYZ, 0.00001f))));
+        angles[2] = (float) (180 / Math.PI * Math.asin((g2 / Math.max(gravityXYZ, 0.00001f))));
+        return angles;
+    }
+
+
+    @Benchmark
+    public MeasurementSnapshot acquire() {
+        measurementPublisher.publish();
+        return measurementPublisher.acquire();
+    }
+}
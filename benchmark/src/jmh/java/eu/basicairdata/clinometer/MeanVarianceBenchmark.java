@@ -0,0 +1,96 @@
+/*
+ * MeanVarianceBenchmark - Java Class
+ * Created on 18/10/2026
+ * This file is part of BasicAirData Clinometer
+ *
+ * Copyright (C) 2026 BasicAirData
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package eu.basicairdata.clinometer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The loading of the samples and the statistics of the MeanVariance,
+ * for the window sizes used by the InclinationEngine.
+ */
+@State(Scope.Thread)
+public class MeanVarianceBenchmark {
+
+    @Param({"16", "200", "1000"})
+    public int size;
+
+    private MeanVariance meanVariance;
+    private MeanVariance3 meanVariance3;
+    private final MeanVariance3.Statistics statistics = new MeanVariance3.Statistics();
+    private float sample = 0;
+
+
+    @Setup
+    public void setup() {
+        meanVariance = new MeanVariance(size);
+        meanVariance3 = new MeanVariance3(size);
+        for (int i = 0; i < size; i++) {
+            meanVariance.loadSample(nextSample());
+            meanVariance3.loadSample(nextSample(), nextSample(), nextSample());
+        }
+    }
+
+
+    private float nextSample() {
+        sample = (sample + 0.37f) % 10.0f;
+        return sample;
+    }
+
+
+    @Benchmark
+    public void loadSample() {
+        meanVariance.loadSample(nextSample());
+    }
+
+
+    /**
+     * The longest tail window: a window as long as the whole buffer
+     * returns 0 without computing anything.
+     */
+    @Benchmark
+    public float getToleranceLongestWindow() {
+        return meanVariance.getTolerance(size - 1);
+    }
+
+
+    @Benchmark
+    public float getToleranceHalfWindow() {
+        return meanVariance.getTolerance(size / 2);
+    }
+
+
+    @Benchmark
+    public void loadSample3() {
+        meanVariance3.loadSample(nextSample(), nextSample(), nextSample());
+    }
+
+
+    @Benchmark
+    public MeanVariance3.Statistics getStatistics3() {
+        meanVariance3.getStatistics(size, statistics);
+        return statistics;
+    }
+}